@@ -0,0 +1,80 @@
+package com.nuevo.tareas.benchmark;
+
+import com.nuevo.tareas.dto.EstadoDTO;
+import com.nuevo.tareas.dto.ResultadosBusqueda;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.repository.TareaRepository;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import com.nuevo.tareas.service.IndiceBusquedaTareas;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Consulta de GET /tareas/search sobre el índice en memoria de un usuario con muchas tareas.
+ * El repositorio es un mock que entrega las tareas una sola vez, al cargar el índice en
+ * {@link #preparar()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BusquedaBenchmark {
+
+    private static final Long USUARIO = 1L;
+
+    @Param({"20000"})
+    public int tareas;
+
+    private IndiceBusquedaTareas indice;
+    private String[] palabras;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        palabras = new String[400];
+        for (int i = 0; i < palabras.length; i++) {
+            palabras[i] = "palabra" + i;
+        }
+        Random random = new Random(7);
+        LocalDateTime hoy = LocalDateTime.now();
+        List<TareaDTO> lista = new ArrayList<>(tareas);
+        for (int i = 1; i <= tareas; i++) {
+            String titulo = palabras[random.nextInt(palabras.length)] + " " + palabras[random.nextInt(palabras.length)];
+            String descripcion = palabras[random.nextInt(palabras.length)] + " " + palabras[random.nextInt(palabras.length)];
+            lista.add(new TareaDTO((long) i, titulo, descripcion, hoy, hoy.plusDays(i % 60),
+                    new EstadoDTO(1L, "Pendiente"), 0L));
+        }
+
+        TareaRepository repositorio = mock(TareaRepository.class);
+        when(repositorio.streamByUsuarioId(USUARIO)).thenAnswer(i -> lista.stream());
+        indice = new IndiceBusquedaTareas(repositorio, mock(UsuarioRepository.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), false, 1);
+        indice.buscar(USUARIO, palabras[0], 50);
+    }
+
+    @Benchmark
+    public ResultadosBusqueda unaPalabra() {
+        return indice.buscar(USUARIO, palabras[siguiente++ % palabras.length], 50);
+    }
+
+    /**
+     * La última palabra también cuenta como prefijo: "palabra3" coincide con palabra3, palabra30..39
+     * y palabra300..399, y se comprueba contra los términos de cada candidata de la primera.
+     */
+    @Benchmark
+    public ResultadosBusqueda dosPalabras() {
+        return indice.buscar(USUARIO, palabras[siguiente++ % palabras.length] + " palabra3", 50);
+    }
+}
@@ -0,0 +1,20 @@
+package com.nuevo.tareas.benchmark;
+
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.security.UsuarioAutenticado;
+
+final class Fixtures {
+
+    static final String SECRETO = "mySuperSecretKeyForJWT1234567890!";
+
+    private Fixtures() {
+    }
+
+    static Usuario usuario() {
+        return new Usuario(1L, "admin@nuevo.com", null, null);
+    }
+
+    static UsuarioAutenticado usuarioAutenticado() {
+        return new UsuarioAutenticado(1L, "admin@nuevo.com");
+    }
+}
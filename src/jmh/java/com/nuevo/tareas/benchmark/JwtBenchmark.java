@@ -0,0 +1,65 @@
+package com.nuevo.tareas.benchmark;
+
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.security.CacheTokensVerificados;
+import com.nuevo.tareas.security.JwtUtil;
+import com.nuevo.tareas.security.UsuarioAutenticado;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operaciones de {@link JwtUtil} que se ejecutan en cada login o petición autenticada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private CacheTokensVerificados cache;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtUtil = new JwtUtil(Fixtures.SECRETO, 900_000);
+        usuario = Fixtures.usuario();
+        token = jwtUtil.generateToken(usuario);
+
+        cache = new CacheTokensVerificados(10_000);
+        cache.guardar(token, new UsuarioAutenticado(usuario.getId(), usuario.getEmail()),
+                System.currentTimeMillis() + 900_000);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(usuario);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    @Benchmark
+    public UsuarioAutenticado extractUsuario() {
+        return jwtUtil.extractUsuario(token);
+    }
+
+    /**
+     * Lo que cuesta el acierto de caché que evita {@code extractUsuario} en JwtFilter.
+     */
+    @Benchmark
+    public UsuarioAutenticado cacheTokens() {
+        return cache.obtener(token);
+    }
+}
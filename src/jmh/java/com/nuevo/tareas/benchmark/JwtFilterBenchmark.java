@@ -0,0 +1,179 @@
+package com.nuevo.tareas.benchmark;
+
+import com.nuevo.tareas.security.CacheTokensVerificados;
+import com.nuevo.tareas.security.JwtFilter;
+import com.nuevo.tareas.security.JwtUtil;
+import com.nuevo.tareas.security.RevalidacionUsuarios;
+import com.nuevo.tareas.security.UsuarioAutenticado;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorrido completo de {@link JwtFilter} para una petición con token válido, con y sin
+ * la caché de tokens verificados. La revalidación de usuario queda desactivada (TTL 0)
+ * para no depender de la base de datos.
+ * <ul>
+ *   <li>{@code filtrar}: el mismo token en cada petición; con caché, siempre acierta.</li>
+ *   <li>{@code filtrarTokensDistintos}: la caché llena y cada petición con un token nuevo, así que
+ *       cada una falla, verifica la firma y descarta una entrada para guardar la suya.</li>
+ *   <li>{@code filtrarAntes}: el filtro anterior a la caché, como referencia: {@code validateToken}
+ *       y después {@code extractUsuario}, cada uno construyendo su propio parser.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final FilterChain CADENA_VACIA = (request, response) -> { };
+
+    @State(Scope.Benchmark)
+    public static class Filtro {
+
+        @Param({"0", "10000"})
+        public int capacidadCache;
+
+        JwtFilter filtro;
+        String cabecera;
+
+        @Setup
+        public void preparar() {
+            JwtUtil jwtUtil = new JwtUtil(Fixtures.SECRETO, 900_000);
+            filtro = nuevoFiltro(jwtUtil, new CacheTokensVerificados(capacidadCache));
+            cabecera = "Bearer " + jwtUtil.generateToken(Fixtures.usuario());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class CacheLlena {
+
+        // 🔹 Más tokens que capacidad: al dar la vuelta, los primeros ya se descartaron
+        private static final int CAPACIDAD = 10_000;
+        private static final int TOKENS = 4 * CAPACIDAD;
+
+        JwtFilter filtro;
+        String[] cabeceras;
+        int siguiente;
+
+        @Setup
+        public void preparar() {
+            JwtUtil jwtUtil = new JwtUtil(Fixtures.SECRETO, 900_000);
+            CacheTokensVerificados cache = new CacheTokensVerificados(CAPACIDAD);
+            filtro = nuevoFiltro(jwtUtil, cache);
+            cabeceras = new String[TOKENS];
+            for (int i = 0; i < TOKENS; i++) {
+                cabeceras[i] = "Bearer " + jwtUtil.generateToken(new UsuarioAutenticado((long) i, "u" + i + "@nuevo.com"));
+            }
+            long expiraEn = System.currentTimeMillis() + 900_000;
+            for (int i = 0; i < CAPACIDAD; i++) {
+                cache.guardar("relleno-" + i, Fixtures.usuarioAutenticado(), expiraEn);
+            }
+        }
+
+        String siguienteCabecera() {
+            String cabecera = cabeceras[siguiente];
+            siguiente = (siguiente + 1) % TOKENS;
+            return cabecera;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Antes {
+
+        FiltroAntes filtro;
+        String cabecera;
+
+        @Setup
+        public void preparar() {
+            filtro = new FiltroAntes(Keys.hmacShaKeyFor(Fixtures.SECRETO.getBytes()));
+            cabecera = "Bearer " + new JwtUtil(Fixtures.SECRETO, 900_000).generateToken(Fixtures.usuario());
+        }
+    }
+
+    /**
+     * Copia del JwtFilter previo a la caché, sin la revalidación (desactivada también en los demás).
+     */
+    static class FiltroAntes extends OncePerRequestFilter {
+
+        private final SecretKey key;
+
+        FiltroAntes(SecretKey key) {
+            this.key = key;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            String token = request.getHeader("Authorization");
+            if (token != null && token.startsWith("Bearer ")) {
+                String jwt = token.substring(7);
+                if (validateToken(jwt)) {
+                    Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwt).getBody();
+                    UsuarioAutenticado usuario = new UsuarioAutenticado(claims.get("uid", Long.class), claims.getSubject());
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+                }
+            }
+            chain.doFilter(request, response);
+        }
+
+        private boolean validateToken(String jwt) {
+            try {
+                Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwt);
+                return true;
+            } catch (JwtException e) {
+                return false;
+            }
+        }
+    }
+
+    @Benchmark
+    public Object filtrar(Filtro estado) throws Exception {
+        return filtrar(estado.filtro, estado.cabecera);
+    }
+
+    @Benchmark
+    public Object filtrarTokensDistintos(CacheLlena estado) throws Exception {
+        return filtrar(estado.filtro, estado.siguienteCabecera());
+    }
+
+    @Benchmark
+    public Object filtrarAntes(Antes estado) throws Exception {
+        return filtrar(estado.filtro, estado.cabecera);
+    }
+
+    private static Object filtrar(OncePerRequestFilter filtro, String cabecera) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tareas");
+        request.addHeader("Authorization", cabecera);
+        try {
+            filtro.doFilter(request, new MockHttpServletResponse(), CADENA_VACIA);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static JwtFilter nuevoFiltro(JwtUtil jwtUtil, CacheTokensVerificados cache) {
+        return new JwtFilter(jwtUtil, new RevalidacionUsuarios(null, 0), cache, new SimpleMeterRegistry());
+    }
+}
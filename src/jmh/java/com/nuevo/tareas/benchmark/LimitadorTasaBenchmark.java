@@ -0,0 +1,55 @@
+package com.nuevo.tareas.benchmark;
+
+import com.nuevo.tareas.security.LimitadorTasa;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coste de {@link LimitadorTasa#consumir} por petición con varios hilos: todos sobre la misma
+ * cubeta (contención en el compareAndSet) o cada uno sobre la suya (solo el mapa concurrente).
+ * Intervalo de 1 ns y ráfaga máxima para que siempre se admita y se mida el camino completo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LimitadorTasaBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Limitador {
+
+        @Param({"compartida", "por-hilo"})
+        public String claves;
+
+        LimitadorTasa limitador;
+        final AtomicInteger siguienteHilo = new AtomicInteger();
+
+        @Setup
+        public void preparar() {
+            limitador = new LimitadorTasa(Duration.ofMinutes(10), 100_000);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Hilo {
+
+        String clave;
+
+        @Setup
+        public void preparar(Limitador estado) {
+            clave = "compartida".equals(estado.claves)
+                    ? "u:admin@nuevo.com"
+                    : "u:usuario" + estado.siguienteHilo.getAndIncrement() + "@nuevo.com";
+        }
+    }
+
+    @Benchmark
+    public long consumir(Limitador estado, Hilo hilo) {
+        return estado.limitador.consumir(hilo.clave, 1, Integer.MAX_VALUE, System.nanoTime());
+    }
+}
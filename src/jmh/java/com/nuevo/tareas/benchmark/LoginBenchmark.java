@@ -0,0 +1,75 @@
+package com.nuevo.tareas.benchmark;
+
+import com.nuevo.tareas.controller.AuthController;
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import com.nuevo.tareas.security.JwtUtil;
+import com.nuevo.tareas.security.VerificadorContrasenas;
+import com.nuevo.tareas.service.RefreshTokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Coste de BCrypt por sí solo y dentro de {@link AuthController#login}, con los repositorios
+ * simulados para que el resultado refleje CPU y no acceso a datos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    private static final String CONTRASENA = "admin123";
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+    private VerificadorContrasenas verificador;
+    private AuthController authController;
+    private Map<String, String> credenciales;
+
+    @Setup
+    public void preparar() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        hash = passwordEncoder.encode(CONTRASENA);
+
+        Usuario usuario = Fixtures.usuario();
+        usuario.setPassword(hash);
+        UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+        when(usuarioRepository.findByEmail(anyString())).thenReturn(Optional.of(usuario));
+        RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+        when(refreshTokenService.emitir(any())).thenReturn("refresh");
+
+        verificador = new VerificadorContrasenas(passwordEncoder, 2, 32, 5_000);
+        authController = new AuthController(usuarioRepository, new JwtUtil(Fixtures.SECRETO, 900_000),
+                verificador, refreshTokenService);
+        credenciales = Map.of("email", usuario.getEmail(), "password", CONTRASENA);
+    }
+
+    @TearDown
+    public void cerrar() {
+        verificador.cerrar();
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return passwordEncoder.matches(CONTRASENA, hash);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> login() {
+        return authController.login(credenciales);
+    }
+}
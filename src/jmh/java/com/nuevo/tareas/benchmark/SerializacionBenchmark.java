@@ -0,0 +1,77 @@
+package com.nuevo.tareas.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.nuevo.tareas.dto.PaginaTareas;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.model.Tarea;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de listas de tareas de distintos tamaños, tanto de la entidad como del DTO
+ * que devuelven los endpoints de lectura, en cada formato negociable (JSON, CBOR y Smile) y
+ * con o sin Blackbird. El ObjectMapper se construye igual que el de Spring Boot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionBenchmark {
+
+    @Param({"1", "50", "200", "1000"})
+    public int tamano;
+
+    @Param({"json", "cbor", "smile"})
+    public String formato;
+
+    @Param({"true", "false"})
+    public boolean blackbird;
+
+    private ObjectMapper objectMapper;
+    private List<Tarea> tareas;
+    private PaginaTareas pagina;
+
+    @Setup
+    public void preparar() {
+        Jackson2ObjectMapperBuilder builder = switch (formato) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> Jackson2ObjectMapperBuilder.json();
+        };
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+
+        EstadoTarea pendiente = new EstadoTarea(1L, EstadoTarea.PENDIENTE);
+        LocalDateTime ahora = LocalDateTime.of(2025, 3, 10, 9, 30);
+        tareas = new ArrayList<>(tamano);
+        List<TareaDTO> dtos = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            Tarea tarea = new Tarea((long) i, "Tarea " + i, "Descripción de la tarea número " + i,
+                    ahora, ahora.plusDays(i % 30), null, pendiente, 0L, null);
+            tareas.add(tarea);
+            dtos.add(TareaDTO.de(tarea, pendiente));
+        }
+        pagina = new PaginaTareas(dtos, "MjAyNS0wNC0wOVQwOTozMHwxMDAw");
+    }
+
+    @Benchmark
+    public byte[] entidades() throws Exception {
+        return objectMapper.writeValueAsBytes(tareas);
+    }
+
+    @Benchmark
+    public byte[] paginaDto() throws Exception {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+}
@@ -0,0 +1,23 @@
+package com.nuevo.tareas.config;
+
+import com.nuevo.tareas.controller.AuthController;
+import com.nuevo.tareas.controller.TareaController;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Con {@code spring.main.lazy-initialization} (perfil produccion) cada bean se crea la primera
+ * vez que se usa. Los controladores de /tareas y /auth, y con ellos todo lo que necesitan para
+ * responder, se siguen creando al arrancar: la primera petición no debe pagar esa inicialización.
+ * El resto (endpoints de actuator, conversores que nadie pide, ...) solo se crea si se usa.
+ */
+@Configuration
+public class ArranqueConfig {
+
+    // 🔹 static: lo consulta un BeanFactoryPostProcessor, antes de que exista esta configuración
+    @Bean
+    static LazyInitializationExcludeFilter rutaCaliente() {
+        return LazyInitializationExcludeFilter.forBeanTypes(TareaController.class, AuthController.class);
+    }
+}
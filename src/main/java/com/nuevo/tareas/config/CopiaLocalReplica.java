@@ -0,0 +1,172 @@
+package com.nuevo.tareas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Réplica de prueba entre dos bases H2: copia el esquema una vez y luego, cada cierto tiempo,
+ * todas las filas de la principal a la réplica en una sola transacción. No reemplaza a la
+ * replicación del motor de base de datos; solo permite probar el ruteo y el retraso en local.
+ * La tabla del latido se copia primero, así el retraso medido nunca es menor que el real.
+ * <p>
+ * Escribe en la réplica con una conexión propia: el pool de la réplica es de solo lectura.
+ */
+@Slf4j
+public class CopiaLocalReplica {
+
+    private static final String TABLA_LATIDO = "LATIDOS_REPLICA";
+
+    private final DataSource primaria;
+    private final HikariDataSource replica;
+    private final long intervalo;
+    private boolean esquemaCreado;
+
+    private final ScheduledExecutorService hilo = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread nuevo = new Thread(tarea, "copia-replica");
+        nuevo.setDaemon(true);
+        return nuevo;
+    });
+
+    public CopiaLocalReplica(DataSource primaria, HikariDataSource replica, long intervalo) {
+        this.primaria = primaria;
+        this.replica = replica;
+        this.intervalo = intervalo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        hilo.scheduleWithFixedDelay(this::copiarProgramado, 0, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene la copia; la réplica queda congelada y su retraso empieza a crecer.
+     */
+    @PreDestroy
+    public void cerrar() {
+        hilo.shutdownNow();
+    }
+
+    private void copiarProgramado() {
+        try {
+            copiar();
+        } catch (SQLException | RuntimeException e) {
+            // Una excepción cancelaría la ejecución periódica
+            log.error("Error al copiar la base de datos principal a la réplica", e);
+        }
+    }
+
+    synchronized void copiar() throws SQLException {
+        try (Connection origen = primaria.getConnection(); Connection destino = DriverManager.getConnection(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())) {
+            if (!esquemaCreado) {
+                crearEsquema(origen, destino);
+                esquemaCreado = true;
+            }
+
+            origen.setAutoCommit(false);
+            origen.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            destino.setAutoCommit(false);
+            try {
+                for (String tabla : tablas(origen)) {
+                    copiarTabla(origen, destino, tabla);
+                }
+                destino.commit();
+            } catch (SQLException e) {
+                destino.rollback();
+                throw e;
+            } finally {
+                origen.rollback();
+            }
+        }
+    }
+
+    /**
+     * Las claves foráneas no se comprueban en la réplica: cada tabla se vacía y se vuelve a llenar
+     * dentro de la misma transacción, en cualquier orden.
+     */
+    private static void crearEsquema(Connection origen, Connection destino) throws SQLException {
+        List<String> sentencias = new ArrayList<>();
+        try (Statement st = origen.createStatement(); ResultSet rs = st.executeQuery("script nodata nopasswords nosettings")) {
+            while (rs.next()) {
+                String sentencia = rs.getString(1);
+                if (!sentencia.startsWith("CREATE USER")) {
+                    sentencias.add(sentencia);
+                }
+            }
+        }
+        try (Statement st = destino.createStatement()) {
+            st.execute("drop all objects");
+            for (String sentencia : sentencias) {
+                st.execute(sentencia);
+            }
+            st.execute("set referential_integrity false");
+        }
+    }
+
+    private static List<String> tablas(Connection origen) throws SQLException {
+        List<String> tablas = new ArrayList<>();
+        tablas.add(TABLA_LATIDO);
+        try (Statement st = origen.createStatement(); ResultSet rs = st.executeQuery(
+                "select table_name from information_schema.tables where table_schema = 'PUBLIC' "
+                        + "and table_type = 'BASE TABLE' order by table_name")) {
+            while (rs.next()) {
+                if (!TABLA_LATIDO.equals(rs.getString(1))) {
+                    tablas.add(rs.getString(1));
+                }
+            }
+        }
+        return tablas;
+    }
+
+    private static void copiarTabla(Connection origen, Connection destino, String tabla) throws SQLException {
+        try (Statement borrar = destino.createStatement()) {
+            borrar.executeUpdate("delete from \"" + tabla + "\"");
+        }
+        try (Statement st = origen.createStatement(); ResultSet rs = st.executeQuery("select * from \"" + tabla + "\"")) {
+            ResultSetMetaData columnas = rs.getMetaData();
+            int cantidad = columnas.getColumnCount();
+            StringJoiner nombres = new StringJoiner(", ");
+            StringJoiner marcadores = new StringJoiner(", ");
+            for (int i = 1; i <= cantidad; i++) {
+                nombres.add("\"" + columnas.getColumnName(i) + "\"");
+                marcadores.add("?");
+            }
+
+            try (PreparedStatement insertar = destino.prepareStatement(
+                    "insert into \"" + tabla + "\" (" + nombres + ") values (" + marcadores + ")")) {
+                int enLote = 0;
+                while (rs.next()) {
+                    for (int i = 1; i <= cantidad; i++) {
+                        insertar.setObject(i, rs.getObject(i));
+                    }
+                    insertar.addBatch();
+                    if (++enLote == 500) {
+                        insertar.executeBatch();
+                        enLote = 0;
+                    }
+                }
+                if (enLote > 0) {
+                    insertar.executeBatch();
+                }
+            }
+        }
+    }
+}
@@ -4,14 +4,21 @@ import com.nuevo.tareas.model.EstadoTarea;
 import com.nuevo.tareas.model.Usuario;
 import com.nuevo.tareas.repository.EstadoTareaRepository;
 import com.nuevo.tareas.repository.UsuarioRepository;
+import com.nuevo.tareas.service.CatalogoEstados;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+@Slf4j
 @Configuration
 public class DataLoader {
 
@@ -21,24 +28,37 @@ public class DataLoader {
     @Value("${crendential-api-key.password}") 
     private String adminPassword;
 
+    /**
+     * Las dos cargas son independientes y corren en paralelo sobre el executor de la aplicación,
+     * que usa hilos virtuales cuando spring.threads.virtual.enabled=true. El arranque espera a
+     * ambas para que el catálogo de estados esté listo antes de atender peticiones.
+     */
     @Bean
-    CommandLineRunner initDatabase(UsuarioRepository usuarioRepo, EstadoTareaRepository estadoRepo) {
-        return args -> {
-            // Precargar estados de tarea
-            if (estadoRepo.count() == 0) {
-                estadoRepo.saveAll(List.of(
-                        new EstadoTarea(null, "Pendiente"),
-                        new EstadoTarea(null, "En Progreso"),
-                        new EstadoTarea(null, "Completada")
-                ));
-            }
-
-            // Precargar usuario de prueba desde application.yml
-            if (usuarioRepo.count() == 0) {
-                BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-                usuarioRepo.save(new Usuario(null, adminEmail, passwordEncoder.encode(adminPassword), null));
-                System.out.println("Usuario admin cargado desde configuración: " + adminEmail);
-            }
-        };
+    CommandLineRunner initDatabase(UsuarioRepository usuarioRepo, EstadoTareaRepository estadoRepo,
+                                   CatalogoEstados catalogoEstados, PasswordEncoder passwordEncoder,
+                                   @Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor) {
+        return args -> CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> {
+                    // Precargar estados de tarea; los que se agreguen después se insertan en bases existentes
+                    catalogoEstados.refrescar();
+                    List<EstadoTarea> faltantes = Stream.of(EstadoTarea.PENDIENTE, EstadoTarea.EN_PROGRESO,
+                                    EstadoTarea.COMPLETADA, EstadoTarea.VENCIDA)
+                            .filter(nombre -> catalogoEstados.porNombre(nombre).isEmpty())
+                            .map(nombre -> new EstadoTarea(null, nombre))
+                            .toList();
+                    if (!faltantes.isEmpty()) {
+                        estadoRepo.saveAll(faltantes);
+                        catalogoEstados.refrescar();
+                    }
+                }, executor),
+                CompletableFuture.runAsync(() -> {
+                    // Precargar usuario de prueba desde application.yml
+                    // 🔹 Búsqueda por email (clave natural, con índice y caché) en lugar de contar toda la tabla
+                    if (usuarioRepo.findByEmail(adminEmail).isEmpty()) {
+                        usuarioRepo.save(new Usuario(null, adminEmail, passwordEncoder.encode(adminPassword), null));
+                        log.info("Usuario admin cargado desde configuración: {}", adminEmail);
+                    }
+                }, executor)
+        ).join();
     }
 }
@@ -0,0 +1,68 @@
+package com.nuevo.tareas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Con {@code tareas.replica.habilitada}, las transacciones de solo lectura (listado, exportación,
+ * resumen) usan un pool propio contra la réplica y las escrituras el de {@code spring.datasource}.
+ * Sin esa propiedad, Spring Boot configura su único DataSource como siempre.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tareas.replica.habilitada", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaria(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // 🔹 jdbc-url, usuario y tamaño del pool de la réplica, en tareas.replica.datasource
+    @Bean
+    @ConfigurationProperties("tareas.replica.datasource")
+    HikariDataSource replica() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    MonitorReplica monitorReplica(@Qualifier("primaria") DataSource primaria, @Qualifier("replica") DataSource replica,
+                                  @Value("${tareas.replica.latido}") long latido,
+                                  @Value("${tareas.replica.retraso-maximo}") long retrasoMaximo) {
+        return new MonitorReplica(primaria, replica, latido, retrasoMaximo);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tareas.replica.copia-local.habilitada", havingValue = "true")
+    CopiaLocalReplica copiaLocalReplica(@Qualifier("primaria") DataSource primaria,
+                                        @Qualifier("replica") HikariDataSource replica,
+                                        @Value("${tareas.replica.copia-local.intervalo}") long intervalo) {
+        return new CopiaLocalReplica(primaria, replica, intervalo);
+    }
+
+    /**
+     * El DataSource que usan JPA y JdbcTemplate.
+     */
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaria") DataSource primaria, @Qualifier("replica") DataSource replica,
+                          MonitorReplica monitor) {
+        RutaDataSource ruta = new RutaDataSource(monitor);
+        ruta.setTargetDataSources(Map.of(RutaDataSource.Destino.PRIMARIA, primaria,
+                RutaDataSource.Destino.REPLICA, replica));
+        ruta.setDefaultTargetDataSource(primaria);
+        ruta.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(ruta);
+    }
+}
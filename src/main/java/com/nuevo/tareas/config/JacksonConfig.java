@@ -0,0 +1,51 @@
+package com.nuevo.tareas.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Además de JSON, las respuestas se pueden pedir en CBOR ({@code Accept: application/cbor}) o
+ * Smile ({@code Accept: application/x-jackson-smile}): mismos campos, codificación binaria y,
+ * en Smile, nombres de campo repetidos referenciados en lugar de reescritos.
+ * <p>
+ * Spring registraría estos formatos por su cuenta, pero con un ObjectMapper propio; aquí se
+ * construyen con el builder de Spring Boot para que fechas, módulos y {@code spring.jackson.*}
+ * sean los mismos que en JSON. Los codecs equivalentes de la variante reactiva están en
+ * {@code JacksonReactivoConfig} (perfil de Maven {@code reactivo}).
+ */
+@Configuration
+public class JacksonConfig {
+
+    // 🔹 Spring Boot registra cualquier Module del contexto en todos los ObjectMapper que construye
+    @Bean
+    Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cbor(builder));
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(smile(builder));
+    }
+
+    // 🔹 El builder es prototype: cada bean recibe el suyo, así que fijar la fábrica no afecta al de JSON
+    static ObjectMapper cbor(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory()).build();
+    }
+
+    static ObjectMapper smile(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory()).build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.nuevo.tareas.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Límites de peticiones por ruta. Se aplica la primera regla cuya ruta (patrón estilo
+ * {@code /tareas/**}) y método coincidan; las rutas sin regla no se limitan.
+ */
+@ConfigurationProperties(prefix = "limite-tasa")
+public record LimiteTasaProperties(
+        @DefaultValue("true") boolean habilitado,
+        @DefaultValue("10m") Duration inactividad,
+        @DefaultValue("100000") int maximoClaves,
+        @DefaultValue List<Regla> reglas) {
+
+    /**
+     * @param metodo  método HTTP al que aplica; vacío para todos
+     * @param peticiones peticiones sostenidas permitidas por {@code periodo}
+     * @param rafaga  peticiones que se pueden hacer seguidas antes de empezar a esperar
+     */
+    public record Regla(String ruta, String metodo, int peticiones,
+                        @DefaultValue("1m") Duration periodo, @DefaultValue("1") int rafaga) {
+    }
+}
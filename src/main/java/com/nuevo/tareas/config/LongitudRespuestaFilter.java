@@ -0,0 +1,50 @@
+package com.nuevo.tareas.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Los conversores de Jackson escriben sin Content-Length y Tomcat comprime toda respuesta de
+ * longitud desconocida, por pequeña que sea. En las lecturas de /tareas el cuerpo ya está
+ * acotado por la paginación: se acumula y se envía con su longitud, de modo que
+ * {@code server.compression.min-response-size} decide de verdad.
+ * <p>
+ * Quedan fuera las respuestas que se transmiten a medida que se generan (eventos y exportación).
+ */
+@Component
+@Profile("!reactivo")
+public class LongitudRespuestaFilter extends OncePerRequestFilter {
+
+    private static final String PREFIJO = "/tareas";
+    private static final Set<String> CONTINUAS = Set.of("/tareas/stream", "/tareas/export");
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String ruta = request.getServletPath();
+        return !HttpMethod.GET.matches(request.getMethod())
+                || !ruta.startsWith(PREFIJO)
+                || CONTINUAS.contains(ruta);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper respuesta = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, respuesta);
+        } finally {
+            // 🔹 Fija Content-Length y vuelca el cuerpo; un 304 no tiene cuerpo y sale igual
+            respuesta.copyBodyToResponse();
+        }
+    }
+}
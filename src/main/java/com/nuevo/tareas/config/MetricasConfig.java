@@ -0,0 +1,80 @@
+package com.nuevo.tareas.config;
+
+import com.nuevo.tareas.security.CacheTokensVerificados;
+import com.nuevo.tareas.security.LimitadorTasa;
+import com.nuevo.tareas.security.VerificadorContrasenas;
+import com.nuevo.tareas.service.BusEventosTareas;
+import com.nuevo.tareas.service.RecordatoriosTareas;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Expone como métricas los contadores que ya llevan los componentes de seguridad. Se leen
+ * al consultar /actuator/metrics, sin coste en el camino de cada petición.
+ * <p>
+ * Los endpoints de TareaController y las llamadas a repositorios ya los mide Spring Boot
+ * ({@code http.server.requests} y {@code spring.data.repository.invocations}).
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    MeterBinder metricasCacheTokens(CacheTokensVerificados cache) {
+        return registry -> {
+            FunctionCounter.builder("autenticacion.jwt.cache", cache, CacheTokensVerificados::getAciertos)
+                    .tag("resultado", "acierto").register(registry);
+            FunctionCounter.builder("autenticacion.jwt.cache", cache, CacheTokensVerificados::getFallos)
+                    .tag("resultado", "fallo").register(registry);
+            Gauge.builder("autenticacion.jwt.cache.tamano", cache, CacheTokensVerificados::getTamano)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder metricasVerificadorContrasenas(VerificadorContrasenas verificador) {
+        return registry -> {
+            Gauge.builder("autenticacion.bcrypt.cola", verificador, VerificadorContrasenas::getEnCola)
+                    .description("Logins esperando verificación de contraseña").register(registry);
+            Gauge.builder("autenticacion.bcrypt.activos", verificador, VerificadorContrasenas::getActivos)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder metricasLimitadorTasa(LimitadorTasa limitador) {
+        return registry -> Gauge.builder("limite.tasa.cubetas", limitador, LimitadorTasa::getTamano)
+                .description("Usuarios o IPs con cubeta de límite en memoria").register(registry);
+    }
+
+    @Bean
+    MeterBinder metricasBusEventos(BusEventosTareas bus) {
+        return registry -> {
+            Gauge.builder("tareas.stream.conexiones", bus, BusEventosTareas::getSuscripciones)
+                    .description("Conexiones abiertas a /tareas/stream").register(registry);
+            FunctionCounter.builder("tareas.stream.expulsiones", bus, BusEventosTareas::getExpulsiones)
+                    .description("Conexiones cerradas por no consumir eventos").register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder metricasRecordatorios(RecordatoriosTareas recordatorios) {
+        return registry -> Gauge.builder("tareas.recordatorios.programadas", recordatorios,
+                        RecordatoriosTareas::getProgramadas)
+                .description("Tareas con vencimiento dentro de la ventana en memoria").register(registry);
+    }
+
+    // 🔹 Solo con tareas.replica.habilitada; los pools "primaria" y "replica" ya se miden en hikaricp.connections.*
+    @Bean
+    MeterBinder metricasReplica(ObjectProvider<MonitorReplica> monitor) {
+        return registry -> monitor.ifAvailable(replica -> {
+            Gauge.builder("tareas.datasource.replica.retraso", replica, MonitorReplica::getRetraso)
+                    .description("Milisegundos de retraso de la réplica (-1 = sin medir)").register(registry);
+            FunctionCounter.builder("tareas.datasource.replica.desvios", replica, MonitorReplica::getDesvios)
+                    .description("Lecturas enviadas a la principal por retraso de la réplica").register(registry);
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package com.nuevo.tareas.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mide el retraso de la réplica con un latido: escribe la hora en {@code latidos_replica} de la
+ * principal y lee la última que llegó a la réplica. Mientras el retraso supere el máximo (o no se
+ * haya podido medir todavía) las lecturas vuelven a la principal.
+ */
+@Slf4j
+public class MonitorReplica {
+
+    private static final long SIN_MEDIR = -1;
+
+    private final JdbcTemplate primaria;
+    private final JdbcTemplate replica;
+    private final long latido;
+    private final long retrasoMaximo;
+    private final LongAdder desvios = new LongAdder();
+    private volatile long marcaReplicada = SIN_MEDIR;
+
+    private final ScheduledExecutorService hilo = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread nuevo = new Thread(tarea, "latido-replica");
+        nuevo.setDaemon(true);
+        return nuevo;
+    });
+
+    public MonitorReplica(DataSource primaria, DataSource replica, long latido, long retrasoMaximo) {
+        this.primaria = new JdbcTemplate(primaria);
+        this.replica = new JdbcTemplate(replica);
+        this.latido = latido;
+        this.retrasoMaximo = retrasoMaximo;
+    }
+
+    /**
+     * Se empieza al terminar el arranque, cuando Hibernate ya creó la tabla del latido.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        hilo.scheduleWithFixedDelay(this::medir, 0, latido, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        hilo.shutdownNow();
+    }
+
+    /**
+     * @return {@code true} si la réplica está al día; si no, cuenta la lectura como desviada a la principal
+     */
+    public boolean usarReplica() {
+        return usarReplica(SIN_MEDIR);
+    }
+
+    /**
+     * Como {@link #usarReplica()}, pero además exige que la réplica tenga lo confirmado en la principal
+     * hasta {@code confirmadoEn}. El latido que llegó a la réplica se escribió después de esa hora, así
+     * que se confirmó después que cualquier escritura anterior y la réplica ya la contiene.
+     *
+     * @param confirmadoEn milisegundos de la última escritura que la lectura debe ver
+     */
+    public boolean usarReplica(long confirmadoEn) {
+        long marca = marcaReplicada;
+        if (marca != SIN_MEDIR && marca > confirmadoEn && System.currentTimeMillis() - marca <= retrasoMaximo) {
+            return true;
+        }
+        desvios.increment();
+        return false;
+    }
+
+    /**
+     * @return milisegundos de retraso de la réplica, o -1 si todavía no se pudo medir
+     */
+    public long getRetraso() {
+        long marca = marcaReplicada;
+        return marca == SIN_MEDIR ? SIN_MEDIR : Math.max(0, System.currentTimeMillis() - marca);
+    }
+
+    public long getDesvios() {
+        return desvios.sum();
+    }
+
+    private void medir() {
+        try {
+            escribirLatido(System.currentTimeMillis());
+        } catch (DataAccessException e) {
+            log.warn("No se pudo escribir el latido en la base de datos principal: {}", e.getMessage());
+        }
+        try {
+            // Si la réplica no responde la marca deja de avanzar y el retraso crece solo
+            List<Long> marcas = replica.queryForList("select marca from latidos_replica where id = 1", Long.class);
+            if (!marcas.isEmpty()) {
+                marcaReplicada = marcas.get(0);
+            }
+        } catch (DataAccessException e) {
+            if (marcaReplicada == SIN_MEDIR) {
+                // Al arrancar, la réplica puede no tener todavía la tabla del latido
+                log.debug("Réplica sin latido todavía: {}", e.getMessage());
+            } else {
+                log.warn("No se pudo leer el latido de la réplica: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void escribirLatido(long ahora) {
+        if (primaria.update("update latidos_replica set marca = ? where id = 1", ahora) == 0) {
+            try {
+                primaria.update("insert into latidos_replica (id, marca) values (1, ?)", ahora);
+            } catch (DuplicateKeyException e) {
+                primaria.update("update latidos_replica set marca = ? where id = 1", ahora);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.nuevo.tareas.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Envía las transacciones {@code readOnly} a la réplica y todo lo demás (escrituras y SQL fuera
+ * de una transacción) a la base de datos principal. La decisión se toma al pedir la conexión
+ * física, por eso va envuelto en un {@code LazyConnectionDataSourceProxy}: sin él, la conexión
+ * se obtendría al empezar la transacción, antes de que se sepa si es de solo lectura.
+ */
+public class RutaDataSource extends AbstractRoutingDataSource {
+
+    enum Destino { PRIMARIA, REPLICA }
+
+    private static final ThreadLocal<Boolean> PRIMARIA_FORZADA = new ThreadLocal<>();
+    private static final ThreadLocal<Long> CONFIRMADO_EN = new ThreadLocal<>();
+
+    private final MonitorReplica monitor;
+
+    public RutaDataSource(MonitorReplica monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Ejecuta lecturas que no toleran el retraso de la réplica (por ejemplo, las que avanzan un
+     * cursor de cambios o cargan un estado que luego se mantiene con eventos) contra la principal.
+     * Sin réplica configurada no tiene ningún efecto.
+     */
+    public static <T> T enPrimaria(Supplier<T> lectura) {
+        Boolean anterior = PRIMARIA_FORZADA.get();
+        PRIMARIA_FORZADA.set(Boolean.TRUE);
+        try {
+            return lectura.get();
+        } finally {
+            if (anterior == null) {
+                PRIMARIA_FORZADA.remove();
+            } else {
+                PRIMARIA_FORZADA.set(anterior);
+            }
+        }
+    }
+
+    /**
+     * Ejecuta una lectura que debe ver todo lo confirmado hasta {@code confirmadoEn} (por ejemplo,
+     * la que acompaña a una ETag calculada en memoria): usa la réplica solo si ya le llegó un latido
+     * posterior y, si no, la principal. Sin réplica configurada no tiene ningún efecto.
+     */
+    public static <T> T confirmadoHasta(long confirmadoEn, Supplier<T> lectura) {
+        Long anterior = CONFIRMADO_EN.get();
+        CONFIRMADO_EN.set(anterior == null ? confirmadoEn : Math.max(anterior, confirmadoEn));
+        try {
+            return lectura.get();
+        } finally {
+            if (anterior == null) {
+                CONFIRMADO_EN.remove();
+            } else {
+                CONFIRMADO_EN.set(anterior);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PRIMARIA_FORZADA.get() != null) {
+            return Destino.PRIMARIA;
+        }
+        Long confirmadoEn = CONFIRMADO_EN.get();
+        boolean replica = confirmadoEn == null ? monitor.usarReplica() : monitor.usarReplica(confirmadoEn);
+        return replica ? Destino.REPLICA : Destino.PRIMARIA;
+    }
+}
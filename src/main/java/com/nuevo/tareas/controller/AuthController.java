@@ -3,36 +3,45 @@ package com.nuevo.tareas.controller;
 import com.nuevo.tareas.model.Usuario;
 import com.nuevo.tareas.repository.UsuarioRepository;
 import com.nuevo.tareas.security.JwtUtil;
+import com.nuevo.tareas.security.VerificadorContrasenas;
+import com.nuevo.tareas.service.RefreshTokenService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
+@Profile("!reactivo")
 @RequestMapping("/auth")
 @Tag(name = "Autenticación", description = "API para autenticación de usuarios")
 public class AuthController {
 
     private final UsuarioRepository usuarioRepository;
     private final JwtUtil jwtUtil;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final VerificadorContrasenas verificadorContrasenas;
+    private final RefreshTokenService refreshTokenService;
 
-    public AuthController(UsuarioRepository usuarioRepository, JwtUtil jwtUtil) {
+    public AuthController(UsuarioRepository usuarioRepository, JwtUtil jwtUtil,
+                          VerificadorContrasenas verificadorContrasenas, RefreshTokenService refreshTokenService) {
         this.usuarioRepository = usuarioRepository;
         this.jwtUtil = jwtUtil;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.verificadorContrasenas = verificadorContrasenas;
+        this.refreshTokenService = refreshTokenService;
     }
 
-    @Operation(summary = "Autenticación de usuario", description = "Genera un token JWT válido para un usuario autenticado.")
+    @Operation(summary = "Autenticación de usuario", description = "Genera un token JWT de corta duración y un token de refresco para un usuario autenticado.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Autenticación exitosa. Devuelve un token JWT."),
-        @ApiResponse(responseCode = "401", description = "Credenciales inválidas")
+        @ApiResponse(responseCode = "200", description = "Autenticación exitosa. Devuelve el token JWT y el token de refresco."),
+        @ApiResponse(responseCode = "401", description = "Credenciales inválidas"),
+        @ApiResponse(responseCode = "503", description = "Demasiados inicios de sesión simultáneos; reintentar tras Retry-After")
     })
     @PostMapping("/login")
     public ResponseEntity<Map<String, String>> login(@RequestBody Map<String, String> credentials) {
@@ -41,11 +50,50 @@ public class AuthController {
 
         Optional<Usuario> usuarioOpt = usuarioRepository.findByEmail(email);
 
-        if (usuarioOpt.isPresent() && passwordEncoder.matches(password, usuarioOpt.get().getPassword())) {
-            String token = jwtUtil.generateToken(email);
-            return ResponseEntity.ok(Map.of("token", token));
-        } else {
-            return ResponseEntity.status(401).body(Map.of("error", "Credenciales inválidas"));
+        try {
+            if (usuarioOpt.isPresent() && password != null
+                    && verificadorContrasenas.coincide(password, usuarioOpt.get().getPassword())) {
+                Usuario usuario = usuarioOpt.get();
+                return ResponseEntity.ok(Map.of(
+                        "token", jwtUtil.generateToken(usuario),
+                        "refreshToken", refreshTokenService.emitir(usuario.getId())));
+            } else {
+                return ResponseEntity.status(401).body(Map.of("error", "Credenciales inválidas"));
+            }
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "Servicio de autenticación saturado"));
         }
     }
+
+    @Operation(summary = "Renovar token", description = "Canjea un token de refresco por un nuevo token JWT y un nuevo token de refresco. El token usado queda invalidado; reutilizarlo revoca toda la sesión.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Devuelve el nuevo token JWT y el nuevo token de refresco"),
+        @ApiResponse(responseCode = "401", description = "Token de refresco inválido, expirado o revocado")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, String>> refresh(@RequestBody Map<String, String> cuerpo) {
+        String refreshToken = cuerpo.get("refreshToken");
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return ResponseEntity.status(401).body(Map.of("error", "Token de refresco inválido"));
+        }
+
+        return refreshTokenService.rotar(refreshToken)
+                .map(rotacion -> ResponseEntity.ok(Map.of(
+                        "token", jwtUtil.generateToken(rotacion.usuario()),
+                        "refreshToken", rotacion.refreshToken())))
+                .orElseGet(() -> ResponseEntity.status(401).body(Map.of("error", "Token de refresco inválido")));
+    }
+
+    @Operation(summary = "Cerrar sesión", description = "Revoca el token de refresco y todos los obtenidos a partir del mismo inicio de sesión.")
+    @ApiResponse(responseCode = "204", description = "Sesión cerrada")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody Map<String, String> cuerpo) {
+        String refreshToken = cuerpo.get("refreshToken");
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revocar(refreshToken);
+        }
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,42 @@
+package com.nuevo.tareas.controller;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * ETag fuerte de una tarea (su versión) y lectura de If-Match, compartidas por el controlador
+ * servlet y el reactivo para que ambas variantes respondan igual a las peticiones condicionales.
+ */
+final class EtagsTarea {
+
+    private EtagsTarea() {
+    }
+
+    static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Versiones aceptadas según If-Match; {@code null} si no hay condición (ausente o "*").
+     * Las ETag débiles nunca coinciden (comparación fuerte), por lo que un conjunto vacío
+     * hace que la actualización falle con 412.
+     */
+    static Set<Long> versionesIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        Set<Long> versiones = new HashSet<>();
+        for (String etag : ifMatch.split(",")) {
+            String valor = etag.trim();
+            if (valor.length() > 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+                try {
+                    versiones.add(Long.parseLong(valor.substring(1, valor.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // ETag ajena a esta API: no coincide con ninguna versión
+                }
+            }
+        }
+        return versiones;
+    }
+}
@@ -1,146 +1,395 @@
 package com.nuevo.tareas.controller;
 
+import com.nuevo.tareas.config.RutaDataSource;
+import com.nuevo.tareas.dto.CambiosTareas;
+import com.nuevo.tareas.dto.CursorTareas;
+import com.nuevo.tareas.dto.FiltroTareas;
+import com.nuevo.tareas.dto.FormatoExportacion;
+import com.nuevo.tareas.dto.OperacionTarea;
+import com.nuevo.tareas.dto.PaginaTareas;
+import com.nuevo.tareas.dto.ResultadoOperacion;
+import com.nuevo.tareas.dto.ResultadosBusqueda;
+import com.nuevo.tareas.dto.ResumenTareas;
+import com.nuevo.tareas.dto.TareaDTO;
 import com.nuevo.tareas.model.EstadoTarea;
 import com.nuevo.tareas.model.Tarea;
-import com.nuevo.tareas.model.Usuario;
-import com.nuevo.tareas.repository.EstadoTareaRepository;
 import com.nuevo.tareas.repository.TareaRepository;
-import com.nuevo.tareas.repository.UsuarioRepository;
 import com.nuevo.tareas.security.JwtUtil;
+import com.nuevo.tareas.security.UsuarioAutenticado;
+import com.nuevo.tareas.service.BusEventosTareas;
+import com.nuevo.tareas.service.CatalogoEstados;
+import com.nuevo.tareas.service.ContadoresTareas;
+import com.nuevo.tareas.service.ExportacionTareas;
+import com.nuevo.tareas.service.IndiceBusquedaTareas;
+import com.nuevo.tareas.service.SincronizacionTareas;
+import com.nuevo.tareas.service.TareaService;
+import com.nuevo.tareas.service.VersionesColeccion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @RestController
+@Profile("!reactivo")
 @RequestMapping("/tareas")
 @Tag(name = "Tareas", description = "API para gestionar tareas del usuario autenticado")
 public class TareaController {
 
     private final TareaRepository tareaRepository;
-    private final UsuarioRepository usuarioRepository;
-    private final EstadoTareaRepository estadoTareaRepository;
+    private final TareaService tareaService;
+    private final ExportacionTareas exportacionTareas;
+    private final SincronizacionTareas sincronizacionTareas;
+    private final CatalogoEstados catalogoEstados;
+    private final VersionesColeccion versionesColeccion;
+    private final BusEventosTareas busEventos;
+    private final IndiceBusquedaTareas indiceBusqueda;
+    private final ContadoresTareas contadores;
     private final JwtUtil jwtUtil;
+    private final int limiteDefecto;
+    private final int limiteMaximo;
+    private final int loteMaximo;
 
-    public TareaController(TareaRepository tareaRepository, UsuarioRepository usuarioRepository,
-                           EstadoTareaRepository estadoTareaRepository, JwtUtil jwtUtil) {
+    public TareaController(TareaRepository tareaRepository, TareaService tareaService,
+                           ExportacionTareas exportacionTareas, SincronizacionTareas sincronizacionTareas,
+                           CatalogoEstados catalogoEstados, VersionesColeccion versionesColeccion,
+                           BusEventosTareas busEventos, IndiceBusquedaTareas indiceBusqueda,
+                           ContadoresTareas contadores, JwtUtil jwtUtil,
+                           @Value("${tareas.paginacion.limite-defecto}") int limiteDefecto,
+                           @Value("${tareas.paginacion.limite-maximo}") int limiteMaximo,
+                           @Value("${tareas.lote.maximo}") int loteMaximo) {
         this.tareaRepository = tareaRepository;
-        this.usuarioRepository = usuarioRepository;
-        this.estadoTareaRepository = estadoTareaRepository;
+        this.tareaService = tareaService;
+        this.exportacionTareas = exportacionTareas;
+        this.sincronizacionTareas = sincronizacionTareas;
+        this.catalogoEstados = catalogoEstados;
+        this.versionesColeccion = versionesColeccion;
+        this.busEventos = busEventos;
+        this.indiceBusqueda = indiceBusqueda;
+        this.contadores = contadores;
         this.jwtUtil = jwtUtil;
+        this.limiteDefecto = limiteDefecto;
+        this.limiteMaximo = limiteMaximo;
+        this.loteMaximo = loteMaximo;
     }
 
-    @Operation(summary = "Obtener todas las tareas del usuario autenticado")
+    @Operation(summary = "Obtener una página de tareas del usuario autenticado",
+            description = "Paginación por cursor sobre (fechaVencimiento, id). Use siguienteCursor para pedir la página siguiente. "
+                    + "Con If-None-Match responde 304 si ninguna tarea del usuario cambió.")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "Lista de tareas obtenida con éxito"),
+        @ApiResponse(responseCode = "200", description = "Página de tareas obtenida con éxito"),
+        @ApiResponse(responseCode = "304", description = "Las tareas no cambiaron desde la ETag indicada"),
+        @ApiResponse(responseCode = "400", description = "Cursor o parámetros inválidos"),
         @ApiResponse(responseCode = "403", description = "Acceso denegado")
     })
     @GetMapping
-    public ResponseEntity<List<Tarea>> getTareas() {
+    public ResponseEntity<PaginaTareas> getTareas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(defaultValue = "asc") String orden,
+            @AuthenticationPrincipal UsuarioAutenticado usuario,
+            WebRequest webRequest) {
         try {
-            String email = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Usuario> usuarioOpt = usuarioRepository.findByEmail(email);
-            
-            if (usuarioOpt.isEmpty()) {
-                return ResponseEntity.status(403).build();
+            if (!orden.equals("asc") && !orden.equals("desc")) {
+                return ResponseEntity.badRequest().build();
             }
-            
-            List<Tarea> tareas = tareaRepository.findByUsuarioId(usuarioOpt.get().getId());
-            return ResponseEntity.ok(tareas);
+
+            CursorTareas posicion;
+            try {
+                posicion = cursor != null ? CursorTareas.decodificar(cursor) : null;
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+
+            Long estadoId = null;
+            if (estado != null) {
+                Optional<EstadoTarea> estadoOpt = catalogoEstados.porNombre(estado);
+                if (estadoOpt.isEmpty()) {
+                    return ResponseEntity.badRequest().build();
+                }
+                estadoId = estadoOpt.get().getId();
+            }
+
+            // 🔹 La versión se lee antes de consultar; si no cambió, no se toca la base de datos
+            VersionesColeccion.Version version = versionesColeccion.actual(usuario.id());
+            String etag = version.etag();
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+
+            int tamano = Math.min(Math.max(limite != null ? limite : limiteDefecto, 1), limiteMaximo);
+            FiltroTareas filtro = new FiltroTareas(usuario.id(), estadoId, desde, hasta,
+                    posicion, orden.equals("desc"));
+
+            // 🔹 Se pide una fila extra solo para saber si existe una página siguiente. La réplica solo
+            // sirve si ya tiene la última escritura: si no, la página vieja quedaría fijada por la ETag
+            List<TareaDTO> tareas = RutaDataSource.confirmadoHasta(version.confirmadaEn(),
+                    () -> tareaRepository.buscarPagina(filtro, tamano + 1));
+            String siguienteCursor = null;
+            if (tareas.size() > tamano) {
+                tareas = tareas.subList(0, tamano);
+                TareaDTO ultima = tareas.get(tamano - 1);
+                siguienteCursor = new CursorTareas(ultima.fechaVencimiento(), ultima.id()).codificar();
+            }
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    // 🔹 La ETag es la misma en JSON, CBOR y Smile: la caché del cliente debe separarlos
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(new PaginaTareas(tareas, siguienteCursor));
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
     }
 
-    @Operation(summary = "Crear una nueva tarea")
+    @Operation(summary = "Obtener una tarea del usuario autenticado")
     @ApiResponses({
-        @ApiResponse(responseCode = "201", description = "Tarea creada con éxito"),
-        @ApiResponse(responseCode = "403", description = "Acceso denegado"),
-        @ApiResponse(responseCode = "500", description = "Error interno al crear la tarea")
+        @ApiResponse(responseCode = "200", description = "Tarea obtenida con éxito"),
+        @ApiResponse(responseCode = "304", description = "La tarea no cambió desde la ETag indicada"),
+        @ApiResponse(responseCode = "403", description = "La tarea pertenece a otro usuario"),
+        @ApiResponse(responseCode = "404", description = "La tarea no existe")
     })
-    @PostMapping
-    public ResponseEntity<Tarea> crearTarea(@RequestBody Tarea tarea) {
+    @GetMapping("/{id}")
+    public ResponseEntity<TareaDTO> getTarea(@PathVariable Long id,
+                                             @AuthenticationPrincipal UsuarioAutenticado usuario,
+                                             WebRequest webRequest) {
         try {
-            String email = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Usuario> usuarioOpt = usuarioRepository.findByEmail(email);
-
-            if (usuarioOpt.isEmpty()) {
-                return ResponseEntity.status(403).build();
+            // 🔹 Revalidación: basta con leer la versión para responder 304
+            if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+                Optional<Long> version = tareaRepository.findVersionByIdAndUsuarioId(id, usuario.id());
+                if (version.isPresent() && webRequest.checkNotModified(EtagsTarea.etag(version.get()))) {
+                    return null;
+                }
             }
 
-            Optional<EstadoTarea> estadoPendiente = estadoTareaRepository.findByNombre("Pendiente");
-            if (estadoPendiente.isEmpty()) {
-                return ResponseEntity.status(500).body(null);
+            Optional<TareaDTO> tareaOpt = tareaRepository.findDtoByIdAndUsuarioId(id, usuario.id());
+            if (tareaOpt.isPresent()) {
+                return conEtag(ResponseEntity.ok(), tareaOpt.get());
             }
+            // 🔹 Solo en el camino de error se distingue inexistente de ajena
+            return ResponseEntity.status(tareaRepository.existsById(id) ? 403 : 404).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build();
+        }
+    }
 
-            tarea.setUsuario(usuarioOpt.get());
-            tarea.setFechaCreacion(LocalDateTime.now());
-            tarea.setEstado(estadoPendiente.get());
+    @Operation(summary = "Obtener los cambios desde la última sincronización",
+            description = "Devuelve las tareas creadas o modificadas y los ids de las eliminadas después del cursor. "
+                    + "Sin since se obtienen todas las tareas existentes (sincronización inicial).")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Página de cambios; repetir con siguienteCursor mientras hayMas"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<CambiosTareas> getCambios(@RequestParam(defaultValue = "0") String since,
+                                                    @RequestParam(required = false) Integer limite,
+                                                    @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        long desde;
+        try {
+            desde = Long.parseLong(since);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (desde < 0) {
+            return ResponseEntity.badRequest().build();
+        }
 
-            Tarea nuevaTarea = tareaRepository.save(tarea);
-            return ResponseEntity.ok(nuevaTarea);
+        try {
+            int tamano = Math.min(Math.max(limite != null ? limite : limiteDefecto, 1), limiteMaximo);
+            return ResponseEntity.ok(sincronizacionTareas.cambiosDesde(usuario.id(), desde, tamano));
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
     }
 
-    @Operation(summary = "Actualizar una tarea existente")
-    @PutMapping("/{id}")
-    public ResponseEntity<Tarea> actualizarTarea(@PathVariable Long id, @RequestBody Tarea tareaActualizada) {
+    @Operation(summary = "Obtener el resumen de tareas del usuario autenticado",
+            description = "Cantidad de tareas por estado, vencidas y que vencen en los próximos siete días. "
+                    + "Se lee de contadores mantenidos en cada escritura, sin contar las tareas.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resumen obtenido con éxito")
+    })
+    @GetMapping("/resumen")
+    public ResponseEntity<ResumenTareas> getResumen(@AuthenticationPrincipal UsuarioAutenticado usuario) {
         try {
-            String email = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Usuario> usuarioOpt = usuarioRepository.findByEmail(email);
+            return ResponseEntity.ok(contadores.resumen(usuario.id()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build();
+        }
+    }
 
-            if (usuarioOpt.isEmpty()) {
-                return ResponseEntity.status(403).build();
-            }
+    @Operation(summary = "Buscar tareas por texto",
+            description = "Devuelve las tareas cuyo título o descripción contienen todas las palabras de q, sin distinguir "
+                    + "mayúsculas ni tildes. La última palabra también se busca como prefijo. Orden por fechaVencimiento.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Coincidencias encontradas (puede ser una lista vacía)"),
+        @ApiResponse(responseCode = "400", description = "Falta el texto a buscar")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<ResultadosBusqueda> buscarTareas(@RequestParam(required = false) String q,
+                                                           @RequestParam(required = false) Integer limite,
+                                                           @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
 
-            Optional<Tarea> tareaOpt = tareaRepository.findById(id);
+        try {
+            int tamano = Math.min(Math.max(limite != null ? limite : limiteDefecto, 1), limiteMaximo);
+            return ResponseEntity.ok(indiceBusqueda.buscar(usuario.id(), q, tamano));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build();
+        }
+    }
 
-            if (tareaOpt.isPresent() && tareaOpt.get().getUsuario().getId().equals(usuarioOpt.get().getId())) {
-                Tarea tarea = tareaOpt.get();
-                tarea.setTitulo(tareaActualizada.getTitulo());
-                tarea.setDescripcion(tareaActualizada.getDescripcion());
-                tarea.setFechaVencimiento(tareaActualizada.getFechaVencimiento());
+    @Operation(summary = "Recibir los cambios de tareas en tiempo real",
+            description = "Server-sent events: un evento \"tarea\" (CREADA, ACTUALIZADA o ELIMINADA) por cada cambio confirmado "
+                    + "y un comentario de latido periódico. Al reconectar, use GET /tareas/changes para recuperar lo perdido.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Conexión abierta"),
+        @ApiResponse(responseCode = "429", description = "El usuario ya tiene abiertas el máximo de conexiones")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTareas(@AuthenticationPrincipal UsuarioAutenticado usuario) {
+        SseEmitter emitter = busEventos.suscribir(usuario.id());
+        if (emitter == null) {
+            return ResponseEntity.status(429).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // 🔹 Evita que nginx acumule los eventos en su búfer
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    @Operation(summary = "Exportar todas las tareas del usuario autenticado",
+            description = "Transmite las tareas como NDJSON (una tarea JSON por línea) o CSV sin cargarlas todas en memoria.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exportación en curso"),
+        @ApiResponse(responseCode = "400", description = "Formato no soportado")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarTareas(@RequestParam(defaultValue = "ndjson") String formato,
+                                                                @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        FormatoExportacion formatoExportacion;
+        try {
+            formatoExportacion = FormatoExportacion.desde(formato);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long usuarioId = usuario.id();
+        StreamingResponseBody cuerpo = salida -> exportacionTareas.exportar(usuarioId, formatoExportacion, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoExportacion.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"tareas." + formatoExportacion.getExtension() + "\"")
+                .body(cuerpo);
+    }
+
+    @Operation(summary = "Crear una nueva tarea")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Tarea creada con éxito"),
+        @ApiResponse(responseCode = "403", description = "Acceso denegado"),
+        @ApiResponse(responseCode = "500", description = "Error interno al crear la tarea")
+    })
+    @PostMapping
+    public ResponseEntity<TareaDTO> crearTarea(@RequestBody Tarea tarea,
+                                            @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        try {
+            TareaDTO nuevaTarea = tareaService.crear(usuario.id(), tarea);
+            return conEtag(ResponseEntity.ok(), nuevaTarea);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build();
+        }
+    }
 
-                tareaRepository.save(tarea);
-                return ResponseEntity.ok(tarea);
+    @Operation(summary = "Actualizar una tarea existente",
+            description = "Con If-Match (la ETag de la tarea) solo actualiza si nadie la modificó desde entonces.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Tarea actualizada; la ETag lleva la nueva versión"),
+        @ApiResponse(responseCode = "403", description = "La tarea pertenece a otro usuario"),
+        @ApiResponse(responseCode = "404", description = "La tarea no existe"),
+        @ApiResponse(responseCode = "412", description = "La tarea cambió desde la versión indicada en If-Match")
+    })
+    @PutMapping("/{id}")
+    public ResponseEntity<TareaDTO> actualizarTarea(@PathVariable Long id, @RequestBody Tarea tareaActualizada,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        try {
+            Optional<TareaDTO> tareaOpt = tareaService.actualizar(usuario.id(), id, tareaActualizada,
+                    EtagsTarea.versionesIfMatch(ifMatch));
+
+            if (tareaOpt.isPresent()) {
+                return conEtag(ResponseEntity.ok(), tareaOpt.get());
             } else {
-                return ResponseEntity.status(403).build();
+                return ResponseEntity.status(tareaService.existe(id) ? 403 : 404).build();
             }
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(412).build();
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
     }
 
     @Operation(summary = "Eliminar una tarea")
+    @ApiResponses({
+        @ApiResponse(responseCode = "204", description = "Tarea eliminada"),
+        @ApiResponse(responseCode = "403", description = "La tarea pertenece a otro usuario"),
+        @ApiResponse(responseCode = "404", description = "La tarea no existe")
+    })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> eliminarTarea(@PathVariable Long id) {
+    public ResponseEntity<Void> eliminarTarea(@PathVariable Long id,
+                                              @AuthenticationPrincipal UsuarioAutenticado usuario) {
         try {
-            String email = SecurityContextHolder.getContext().getAuthentication().getName();
-            Optional<Usuario> usuarioOpt = usuarioRepository.findByEmail(email);
-
-            if (usuarioOpt.isEmpty()) {
-                return ResponseEntity.status(403).build();
-            }
-
-            Optional<Tarea> tareaOpt = tareaRepository.findById(id);
-
-            if (tareaOpt.isPresent() && tareaOpt.get().getUsuario().getId().equals(usuarioOpt.get().getId())) {
-                tareaRepository.delete(tareaOpt.get());
+            if (tareaService.eliminar(usuario.id(), id)) {
                 return ResponseEntity.noContent().build();
             } else {
-                return ResponseEntity.status(403).build();
+                return ResponseEntity.status(tareaService.existe(id) ? 403 : 404).build();
             }
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Aplicar un lote de operaciones",
+            description = "Crea, actualiza y elimina tareas en una sola transacción. Cada elemento recibe su propio resultado.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lote aplicado; ver el estado de cada elemento"),
+        @ApiResponse(responseCode = "400", description = "Lote vacío o mayor al máximo permitido"),
+        @ApiResponse(responseCode = "500", description = "Error interno; ningún cambio del lote se aplicó")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<ResultadoOperacion>> aplicarLote(@RequestBody List<OperacionTarea> operaciones,
+                                                                @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        if (operaciones.isEmpty() || operaciones.size() > loteMaximo) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(tareaService.aplicarLote(usuario.id(), operaciones));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    private static ResponseEntity<TareaDTO> conEtag(ResponseEntity.BodyBuilder respuesta, TareaDTO tarea) {
+        return respuesta.eTag(EtagsTarea.etag(tarea.version())).varyBy(HttpHeaders.ACCEPT).body(tarea);
+    }
+}
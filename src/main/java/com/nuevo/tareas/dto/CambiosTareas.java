@@ -0,0 +1,13 @@
+package com.nuevo.tareas.dto;
+
+import java.util.List;
+
+/**
+ * Página de GET /tareas/changes. Las tareas de {@code modificadas} se reemplazan completas en
+ * el cliente y los ids de {@code eliminadas} se borran. Se pide la siguiente página con
+ * {@code since=siguienteCursor}; si {@code hayMas} es falso el cliente está al día y debe
+ * guardar el cursor para la próxima sincronización.
+ */
+public record CambiosTareas(List<TareaDTO> modificadas, List<Long> eliminadas, String siguienteCursor,
+                            boolean hayMas) {
+}
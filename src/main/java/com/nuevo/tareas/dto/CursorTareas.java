@@ -0,0 +1,37 @@
+package com.nuevo.tareas.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de continuación para la paginación por clave (keyset) sobre (fechaVencimiento, id).
+ * Se expone al cliente como un token opaco en Base64 URL-safe.
+ */
+public record CursorTareas(LocalDateTime fechaVencimiento, Long id) {
+
+    private static final char SEPARADOR = '|';
+
+    public String codificar() {
+        String valor = fechaVencimiento.toString() + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si el token no fue emitido por {@link #codificar()}
+     */
+    public static CursorTareas decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            return new CursorTareas(LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.parseLong(valor.substring(separador + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
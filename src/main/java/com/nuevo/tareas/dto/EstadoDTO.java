@@ -0,0 +1,4 @@
+package com.nuevo.tareas.dto;
+
+public record EstadoDTO(Long id, String nombre) {
+}
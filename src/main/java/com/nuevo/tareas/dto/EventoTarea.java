@@ -0,0 +1,22 @@
+package com.nuevo.tareas.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Cambio confirmado sobre una tarea, tal como se envía por GET /tareas/stream.
+ * {@code tarea} es {@code null} en las eliminaciones.
+ */
+public record EventoTarea(@JsonIgnore Long usuarioId, TipoEvento tipo, Long id, TareaDTO tarea) {
+
+    public static EventoTarea creada(Long usuarioId, TareaDTO tarea) {
+        return new EventoTarea(usuarioId, TipoEvento.CREADA, tarea.id(), tarea);
+    }
+
+    public static EventoTarea actualizada(Long usuarioId, TareaDTO tarea) {
+        return new EventoTarea(usuarioId, TipoEvento.ACTUALIZADA, tarea.id(), tarea);
+    }
+
+    public static EventoTarea eliminada(Long usuarioId, Long id) {
+        return new EventoTarea(usuarioId, TipoEvento.ELIMINADA, id, null);
+    }
+}
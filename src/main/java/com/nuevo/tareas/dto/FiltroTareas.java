@@ -0,0 +1,14 @@
+package com.nuevo.tareas.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Criterios de búsqueda de una página de tareas. Los campos nulos no filtran.
+ */
+public record FiltroTareas(Long usuarioId,
+                           Long estadoId,
+                           LocalDateTime desde,
+                           LocalDateTime hasta,
+                           CursorTareas cursor,
+                           boolean descendente) {
+}
@@ -0,0 +1,31 @@
+package com.nuevo.tareas.dto;
+
+import java.util.Locale;
+
+public enum FormatoExportacion {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    FormatoExportacion(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @throws IllegalArgumentException si el formato no es ndjson ni csv
+     */
+    public static FormatoExportacion desde(String valor) {
+        return valueOf(valor.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,9 @@
+package com.nuevo.tareas.dto;
+
+import com.nuevo.tareas.model.Tarea;
+
+/**
+ * Elemento de un lote: {@code id} aplica a ACTUALIZAR y ELIMINAR, {@code tarea} a CREAR y ACTUALIZAR.
+ */
+public record OperacionTarea(TipoOperacion operacion, Long id, Tarea tarea) {
+}
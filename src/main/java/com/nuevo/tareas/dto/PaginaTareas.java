@@ -0,0 +1,9 @@
+package com.nuevo.tareas.dto;
+
+import java.util.List;
+
+/**
+ * Página de tareas. {@code siguienteCursor} es nulo cuando no quedan más resultados.
+ */
+public record PaginaTareas(List<TareaDTO> tareas, String siguienteCursor) {
+}
@@ -0,0 +1,15 @@
+package com.nuevo.tareas.dto;
+
+/**
+ * Resultado de un elemento del lote. {@code estado} usa los mismos códigos HTTP que el endpoint individual.
+ */
+public record ResultadoOperacion(int indice, int estado, TareaDTO tarea, String error) {
+
+    public static ResultadoOperacion exito(int indice, int estado, TareaDTO tarea) {
+        return new ResultadoOperacion(indice, estado, tarea, null);
+    }
+
+    public static ResultadoOperacion error(int indice, int estado, String error) {
+        return new ResultadoOperacion(indice, estado, null, error);
+    }
+}
@@ -0,0 +1,10 @@
+package com.nuevo.tareas.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de GET /tareas/search. {@code total} cuenta todas las coincidencias aunque
+ * {@code tareas} se haya recortado al límite pedido.
+ */
+public record ResultadosBusqueda(int total, List<TareaDTO> tareas) {
+}
@@ -0,0 +1,13 @@
+package com.nuevo.tareas.dto;
+
+import java.util.Map;
+
+/**
+ * Respuesta de GET /tareas/resumen.
+ *
+ * @param porEstado       cantidad de tareas por nombre de estado, incluidos los que no tienen ninguna
+ * @param vencidas        tareas en estado Vencida más las abiertas cuyo día de vencimiento ya pasó
+ * @param vencenEstaSemana tareas abiertas que vencen entre hoy y dentro de seis días
+ */
+public record ResumenTareas(long total, Map<String, Long> porEstado, long vencidas, long vencenEstaSemana) {
+}
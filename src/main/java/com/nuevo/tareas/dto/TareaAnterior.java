@@ -0,0 +1,9 @@
+package com.nuevo.tareas.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columnas de una tarea tal como estaban antes de actualizarla o borrarla, leídas con la fila bloqueada.
+ */
+public record TareaAnterior(Long estadoId, LocalDateTime fechaCreacion, LocalDateTime fechaVencimiento, Long version) {
+}
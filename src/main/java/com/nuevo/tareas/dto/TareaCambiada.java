@@ -0,0 +1,20 @@
+package com.nuevo.tareas.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tarea creada o modificada junto con su número de cambio, para ordenar la respuesta de
+ * GET /tareas/changes. El número no se expone: el cliente solo ve el cursor.
+ */
+public record TareaCambiada(TareaDTO tarea, Long cambio) {
+
+    /**
+     * Constructor usado por la expresión {@code select new} de JPQL.
+     */
+    public TareaCambiada(Long id, String titulo, String descripcion, LocalDateTime fechaCreacion,
+                         LocalDateTime fechaVencimiento, Long estadoId, String estadoNombre, Long version,
+                         Long cambio) {
+        this(new TareaDTO(id, titulo, descripcion, fechaCreacion, fechaVencimiento, estadoId, estadoNombre, version),
+                cambio);
+    }
+}
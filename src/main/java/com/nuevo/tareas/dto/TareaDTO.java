@@ -0,0 +1,35 @@
+package com.nuevo.tareas.dto;
+
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.model.Tarea;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vista de lectura de una tarea. Mantiene la forma JSON de la entidad pero se construye
+ * directamente desde la consulta, sin hidratar entidades administradas.
+ */
+public record TareaDTO(Long id,
+                       String titulo,
+                       String descripcion,
+                       LocalDateTime fechaCreacion,
+                       LocalDateTime fechaVencimiento,
+                       EstadoDTO estado,
+                       Long version) {
+
+    /**
+     * Constructor usado por las expresiones {@code select new} de JPQL y Criteria.
+     */
+    public TareaDTO(Long id, String titulo, String descripcion, LocalDateTime fechaCreacion,
+                    LocalDateTime fechaVencimiento, Long estadoId, String estadoNombre, Long version) {
+        this(id, titulo, descripcion, fechaCreacion, fechaVencimiento, new EstadoDTO(estadoId, estadoNombre), version);
+    }
+
+    /**
+     * El estado se recibe aparte para no inicializar el proxy perezoso de {@code tarea.getEstado()}.
+     */
+    public static TareaDTO de(Tarea tarea, EstadoTarea estado) {
+        return new TareaDTO(tarea.getId(), tarea.getTitulo(), tarea.getDescripcion(), tarea.getFechaCreacion(),
+                tarea.getFechaVencimiento(), estado.getId(), estado.getNombre(), tarea.getVersion());
+    }
+}
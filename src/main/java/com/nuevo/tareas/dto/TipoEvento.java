@@ -0,0 +1,10 @@
+package com.nuevo.tareas.dto;
+
+public enum TipoEvento {
+    CREADA,
+    ACTUALIZADA,
+    ELIMINADA,
+    // Avisos de RecordatoriosTareas; no cambian la tarea
+    POR_VENCER,
+    VENCIDA
+}
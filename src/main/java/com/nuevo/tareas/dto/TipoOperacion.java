@@ -0,0 +1,7 @@
+package com.nuevo.tareas.dto;
+
+public enum TipoOperacion {
+    CREAR,
+    ACTUALIZAR,
+    ELIMINAR
+}
@@ -0,0 +1,9 @@
+package com.nuevo.tareas.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lo mínimo para programar los avisos de una tarea, sin cargar su texto.
+ */
+public record VencimientoTarea(Long id, Long usuarioId, LocalDateTime fechaVencimiento, Long version) {
+}
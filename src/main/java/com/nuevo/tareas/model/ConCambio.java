@@ -0,0 +1,10 @@
+package com.nuevo.tareas.model;
+
+/**
+ * Entidad que registra en qué número de cambio se escribió por última vez, para la
+ * sincronización incremental de GET /tareas/changes.
+ */
+public interface ConCambio {
+
+    void setCambio(Long cambio);
+}
@@ -0,0 +1,43 @@
+package com.nuevo.tareas.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+
+/**
+ * Cantidad de tareas de un usuario en un estado que vencen un día dado. Las filas las mantiene
+ * {@link com.nuevo.tareas.service.ContadoresTareas} con SQL directo; la entidad solo define la tabla.
+ */
+@Entity
+@Table(name = "contadores_tareas", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_contadores_tareas", columnNames = {"usuario_id", "estado_id", "dia"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContadorTareas {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Usuario usuario;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "estado_id", nullable = false)
+    private EstadoTarea estado;
+
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private long cantidad;
+}
@@ -2,9 +2,15 @@ package com.nuevo.tareas.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.Set;
 
 @Entity
 @Table(name = "estados_tarea")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "estados")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -12,6 +18,14 @@ import lombok.*;
 @Builder
 public class EstadoTarea {
 
+    public static final String PENDIENTE = "Pendiente";
+    public static final String EN_PROGRESO = "En Progreso";
+    public static final String COMPLETADA = "Completada";
+    public static final String VENCIDA = "Vencida";
+
+    // 🔹 Estados en los que una tarea todavía puede vencer
+    public static final Set<String> ABIERTOS = Set.of(PENDIENTE, EN_PROGRESO);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
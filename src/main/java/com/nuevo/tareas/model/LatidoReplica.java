@@ -0,0 +1,25 @@
+package com.nuevo.tareas.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Una sola fila con la hora (en milisegundos) de la última escritura periódica en la base de datos
+ * principal. Al leerla en la réplica se sabe cuánto va retrasada; la mantiene
+ * {@link com.nuevo.tareas.config.MonitorReplica} con SQL directo.
+ */
+@Entity
+@Table(name = "latidos_replica")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LatidoReplica {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long marca;
+}
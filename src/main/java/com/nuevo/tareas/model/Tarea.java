@@ -6,18 +6,30 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.nuevo.tareas.service.CambioListener;
 
 @Entity
-@Table(name = "tareas")
+@EntityListeners(CambioListener.class)
+@Table(name = "tareas", indexes = {
+        // 🔹 Soporta la paginación por clave (usuario, fechaVencimiento, id)
+        @Index(name = "idx_tareas_usuario_vencimiento", columnList = "usuario_id, fecha_vencimiento, id"),
+        // 🔹 Soporta GET /tareas/changes (usuario, cambio)
+        @Index(name = "idx_tareas_usuario_cambio", columnList = "usuario_id, cambio"),
+        // 🔹 Soporta la carga de vencimientos próximos de todos los usuarios (ver RecordatoriosTareas)
+        @Index(name = "idx_tareas_vencimiento_estado", columnList = "fecha_vencimiento, estado_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Tarea {
+public class Tarea implements ConCambio {
 
+    // 🔹 Secuencia con optimizador pooled: IDENTITY impide a Hibernate agrupar los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tareas_seq")
+    @SequenceGenerator(name = "tareas_seq", sequenceName = "tareas_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -33,11 +45,19 @@ public class Tarea {
     private LocalDateTime fechaVencimiento;
 
     @JsonBackReference // 🔹 Indica que esta entidad es la "referenciada"
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id")
     private Usuario usuario;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "estado_id", nullable = false)
     private EstadoTarea estado;
+
+    // 🔹 Bloqueo optimista: el UPDATE incluye "where version = ?" y falla si otro lo cambió antes
+    @Version
+    private Long version;
+
+    // 🔹 Número de cambio global de la última escritura; lo asigna CambioListener
+    @JsonIgnore
+    private Long cambio;
 }
@@ -0,0 +1,45 @@
+package com.nuevo.tareas.model;
+
+import com.nuevo.tareas.service.CambioListener;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marca (tombstone) de una tarea eliminada, para que los clientes que sincronizan por
+ * cambios se enteren del borrado.
+ */
+@Entity
+@EntityListeners(CambioListener.class)
+@Table(name = "tareas_eliminadas", indexes = {
+        @Index(name = "idx_tareas_eliminadas_usuario_cambio", columnList = "usuario_id, cambio")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TareaEliminada implements ConCambio {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tareas_eliminadas_seq")
+    @SequenceGenerator(name = "tareas_eliminadas_seq", sequenceName = "tareas_eliminadas_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long tareaId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Usuario usuario;
+
+    @Column(nullable = false)
+    private Long cambio;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaEliminacion;
+}
@@ -1,9 +1,15 @@
 package com.nuevo.tareas.repository;
 
 import com.nuevo.tareas.model.EstadoTarea;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.Optional;
 
 public interface EstadoTareaRepository extends JpaRepository<EstadoTarea, Long> {
+
+    // 🔹 Caché de consultas: la tabla casi nunca cambia y cualquier escritura en ella invalida el resultado
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<EstadoTarea> findByNombre(String nombre);
 }
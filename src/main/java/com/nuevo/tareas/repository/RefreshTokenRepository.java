@@ -0,0 +1,29 @@
+package com.nuevo.tareas.repository;
+
+import com.nuevo.tareas.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Trae también el usuario: la rotación necesita su email para firmar el nuevo JWT.
+     */
+    @Query("select r from RefreshToken r join fetch r.usuario where r.hash = :hash")
+    Optional<RefreshToken> findByHash(@Param("hash") String hash);
+
+    /**
+     * Revoca el token solo si seguía vigente; devuelve 0 si otra petición lo usó primero.
+     */
+    @Modifying
+    @Query("update RefreshToken r set r.revocado = true where r.id = :id and r.revocado = false")
+    int revocarSiVigente(@Param("id") Long id);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revocado = true where r.familia = :familia")
+    int revocarFamilia(@Param("familia") String familia);
+}
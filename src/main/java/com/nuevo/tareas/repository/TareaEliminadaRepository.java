@@ -0,0 +1,20 @@
+package com.nuevo.tareas.repository;
+
+import com.nuevo.tareas.dto.EliminacionTarea;
+import com.nuevo.tareas.model.TareaEliminada;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface TareaEliminadaRepository extends JpaRepository<TareaEliminada, Long> {
+
+    @Query("select new com.nuevo.tareas.dto.EliminacionTarea(e.tareaId, e.cambio) from TareaEliminada e "
+            + "where e.usuario.id = :usuarioId and e.cambio > :desde and e.cambio <= :hasta order by e.cambio")
+    List<EliminacionTarea> buscarCambios(@Param("usuarioId") Long usuarioId, @Param("desde") long desde,
+                                         @Param("hasta") long hasta, Limit limite);
+}
@@ -1,9 +1,87 @@
 package com.nuevo.tareas.repository;
 
+import com.nuevo.tareas.dto.TareaCambiada;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.dto.VencimientoTarea;
+import com.nuevo.tareas.model.EstadoTarea;
 import com.nuevo.tareas.model.Tarea;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TareaRepository extends JpaRepository<Tarea, Long> {
+@Transactional(readOnly = true)
+public interface TareaRepository extends JpaRepository<Tarea, Long>, TareaRepositoryCustom {
     List<Tarea> findByUsuarioId(Long usuarioId);
+
+    List<Tarea> findByIdInAndUsuarioId(Collection<Long> ids, Long usuarioId);
+
+    /**
+     * Cuáles de los ids existen, sin cargar las tareas: separa 403 de 404 en el lote.
+     */
+    @Query("select t.id from Tarea t where t.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Recorre las tareas del usuario con un cursor JDBC; debe consumirse dentro de una transacción y cerrarse.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.nuevo.tareas.dto.TareaDTO(t.id, t.titulo, t.descripcion, t.fechaCreacion, "
+            + "t.fechaVencimiento, e.id, e.nombre, t.version) from Tarea t join t.estado e "
+            + "where t.usuario.id = :usuarioId order by t.id")
+    Stream<TareaDTO> streamByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query("select new com.nuevo.tareas.dto.TareaDTO(t.id, t.titulo, t.descripcion, t.fechaCreacion, "
+            + "t.fechaVencimiento, e.id, e.nombre, t.version) from Tarea t join t.estado e "
+            + "where t.id = :id and t.usuario.id = :usuarioId")
+    Optional<TareaDTO> findDtoByIdAndUsuarioId(@Param("id") Long id, @Param("usuarioId") Long usuarioId);
+
+    @Query("select new com.nuevo.tareas.dto.TareaDTO(t.id, t.titulo, t.descripcion, t.fechaCreacion, "
+            + "t.fechaVencimiento, e.id, e.nombre, t.version) from Tarea t join t.estado e where t.id in :ids")
+    List<TareaDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Tareas de todos los usuarios que vencen en (desde, hasta] y siguen en uno de los estados indicados.
+     */
+    @Query("select new com.nuevo.tareas.dto.VencimientoTarea(t.id, t.usuario.id, t.fechaVencimiento, t.version) "
+            + "from Tarea t where t.fechaVencimiento > :desde and t.fechaVencimiento <= :hasta "
+            + "and t.estado.id in :estados")
+    List<VencimientoTarea> buscarVencimientos(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta,
+                                              @Param("estados") Collection<Long> estados);
+
+    /**
+     * Solo la versión, para responder If-None-Match sin leer ni serializar la tarea.
+     */
+    @Query("select t.version from Tarea t where t.id = :id and t.usuario.id = :usuarioId")
+    Optional<Long> findVersionByIdAndUsuarioId(@Param("id") Long id, @Param("usuarioId") Long usuarioId);
+
+    /**
+     * Tareas escritas con número de cambio en (desde, hasta], en orden de cambio.
+     */
+    @Query("select new com.nuevo.tareas.dto.TareaCambiada(t.id, t.titulo, t.descripcion, t.fechaCreacion, "
+            + "t.fechaVencimiento, e.id, e.nombre, t.version, t.cambio) from Tarea t join t.estado e "
+            + "where t.usuario.id = :usuarioId and t.cambio > :desde and t.cambio <= :hasta order by t.cambio")
+    List<TareaCambiada> buscarCambios(@Param("usuarioId") Long usuarioId, @Param("desde") long desde,
+                                      @Param("hasta") long hasta, Limit limite);
+
+    /**
+     * Cambia solo el estado, sin tocar versión ni cambio: completa una actualización ya hecha en la misma transacción.
+     */
+    @Modifying
+    @Transactional
+    @Query("update Tarea t set t.estado = :estado where t.id = :id")
+    int cambiarEstado(@Param("id") Long id, @Param("estado") EstadoTarea estado);
 }
@@ -0,0 +1,35 @@
+package com.nuevo.tareas.repository;
+
+import com.nuevo.tareas.dto.FiltroTareas;
+import com.nuevo.tareas.dto.TareaAnterior;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.model.Tarea;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface TareaRepositoryCustom {
+
+    /**
+     * Devuelve hasta {@code limite} tareas ordenadas por (fechaVencimiento, id) a partir del cursor del filtro.
+     */
+    List<TareaDTO> buscarPagina(FiltroTareas filtro, int limite);
+
+    /**
+     * Bloquea la tarea leyendo sus valores previos y actualiza título, descripción y vencimiento,
+     * incrementa la versión y asigna {@code cambio} con un UPDATE filtrado por id y usuario.
+     *
+     * @param versionesAceptadas si no es {@code null}, solo se actualiza si la versión actual es una de ellas
+     * @return los valores previos, o vacío si el UPDATE no afectó ninguna fila
+     */
+    Optional<TareaAnterior> actualizarPropia(Long usuarioId, Long id, Tarea datos, Set<Long> versionesAceptadas,
+                                             long cambio);
+
+    /**
+     * Bloquea la tarea leyendo sus valores previos y la borra con un DELETE filtrado por id y usuario.
+     *
+     * @return los valores previos, o vacío si el DELETE no afectó ninguna fila
+     */
+    Optional<TareaAnterior> eliminarPropia(Long usuarioId, Long id);
+}
@@ -0,0 +1,145 @@
+package com.nuevo.tareas.repository;
+
+import com.nuevo.tareas.dto.CursorTareas;
+import com.nuevo.tareas.dto.FiltroTareas;
+import com.nuevo.tareas.dto.TareaAnterior;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.model.Tarea;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Transactional(readOnly = true)
+public class TareaRepositoryImpl implements TareaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TareaDTO> buscarPagina(FiltroTareas filtro, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TareaDTO> query = cb.createQuery(TareaDTO.class);
+        Root<Tarea> tarea = query.from(Tarea.class);
+        Join<Tarea, EstadoTarea> estado = tarea.join("estado");
+        Path<LocalDateTime> fechaVencimiento = tarea.get("fechaVencimiento");
+        Path<Long> id = tarea.get("id");
+
+        List<Predicate> predicados = new ArrayList<>();
+        predicados.add(cb.equal(tarea.get("usuario").get("id"), filtro.usuarioId()));
+        if (filtro.estadoId() != null) {
+            predicados.add(cb.equal(estado.get("id"), filtro.estadoId()));
+        }
+        if (filtro.desde() != null) {
+            predicados.add(cb.greaterThanOrEqualTo(fechaVencimiento, filtro.desde()));
+        }
+        if (filtro.hasta() != null) {
+            predicados.add(cb.lessThanOrEqualTo(fechaVencimiento, filtro.hasta()));
+        }
+
+        // 🔹 Keyset: continuar estrictamente después de la última fila entregada, sin OFFSET
+        CursorTareas cursor = filtro.cursor();
+        if (cursor != null) {
+            if (filtro.descendente()) {
+                predicados.add(cb.or(
+                        cb.lessThan(fechaVencimiento, cursor.fechaVencimiento()),
+                        cb.and(cb.equal(fechaVencimiento, cursor.fechaVencimiento()), cb.lessThan(id, cursor.id()))));
+            } else {
+                predicados.add(cb.or(
+                        cb.greaterThan(fechaVencimiento, cursor.fechaVencimiento()),
+                        cb.and(cb.equal(fechaVencimiento, cursor.fechaVencimiento()), cb.greaterThan(id, cursor.id()))));
+            }
+        }
+
+        // 🔹 Proyección a DTO en una sola sentencia: sin entidades administradas ni selects adicionales
+        query.select(cb.construct(TareaDTO.class,
+                        id, tarea.get("titulo"), tarea.get("descripcion"), tarea.get("fechaCreacion"),
+                        fechaVencimiento, estado.get("id"), estado.get("nombre"), tarea.get("version")))
+                .where(predicados.toArray(Predicate[]::new))
+                .orderBy(filtro.descendente()
+                        ? List.of(cb.desc(fechaVencimiento), cb.desc(id))
+                        : List.of(cb.asc(fechaVencimiento), cb.asc(id)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public Optional<TareaAnterior> actualizarPropia(Long usuarioId, Long id, Tarea datos,
+                                                    Set<Long> versionesAceptadas, long cambio) {
+        if (versionesAceptadas != null && versionesAceptadas.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<TareaAnterior> anterior = bloquearPropia(usuarioId, id);
+        if (anterior.isEmpty()) {
+            return anterior;
+        }
+
+        String update = "update tareas set titulo = :titulo, descripcion = :descripcion, "
+                + "fecha_vencimiento = :fechaVencimiento, version = version + 1, cambio = :cambio "
+                + "where id = :id and usuario_id = :usuarioId"
+                + (versionesAceptadas != null ? " and version in (:versiones)" : "");
+        NativeQuery<?> query = escritura(update)
+                .setParameter("titulo", datos.getTitulo())
+                .setParameter("descripcion", datos.getDescripcion())
+                .setParameter("fechaVencimiento", datos.getFechaVencimiento())
+                .setParameter("cambio", cambio)
+                .setParameter("id", id)
+                .setParameter("usuarioId", usuarioId);
+        if (versionesAceptadas != null) {
+            query.setParameterList("versiones", versionesAceptadas);
+        }
+        return query.executeUpdate() == 1 ? anterior : Optional.empty();
+    }
+
+    @Override
+    @Transactional
+    public Optional<TareaAnterior> eliminarPropia(Long usuarioId, Long id) {
+        Optional<TareaAnterior> anterior = bloquearPropia(usuarioId, id);
+        if (anterior.isEmpty()) {
+            return anterior;
+        }
+        int borradas = escritura("delete from tareas where id = :id and usuario_id = :usuarioId")
+                .setParameter("id", id)
+                .setParameter("usuarioId", usuarioId)
+                .executeUpdate();
+        return borradas == 1 ? anterior : Optional.empty();
+    }
+
+    /**
+     * Lee lo que necesitan los contadores y la respuesta con la fila bloqueada (SELECT ... FOR UPDATE,
+     * con la sintaxis del dialecto): nadie la cambia entre esta lectura y la escritura que sigue.
+     */
+    private Optional<TareaAnterior> bloquearPropia(Long usuarioId, Long id) {
+        return entityManager.createQuery("select new com.nuevo.tareas.dto.TareaAnterior(t.estado.id, "
+                        + "t.fechaCreacion, t.fechaVencimiento, t.version) from Tarea t "
+                        + "where t.id = :id and t.usuario.id = :usuarioId", TareaAnterior.class)
+                .setParameter("id", id)
+                .setParameter("usuarioId", usuarioId)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultStream()
+                .findFirst();
+    }
+
+    private NativeQuery<?> escritura(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Tarea.class);
+    }
+}
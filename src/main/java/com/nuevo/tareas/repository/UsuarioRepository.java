@@ -2,8 +2,11 @@ package com.nuevo.tareas.repository;
 
 import com.nuevo.tareas.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
-import java.util.Optional;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
 
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
-    Optional<Usuario> findByEmail(String email);
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioRepositoryCustom {
+
+    @Query("select u.id from Usuario u")
+    List<Long> findAllIds();
 }
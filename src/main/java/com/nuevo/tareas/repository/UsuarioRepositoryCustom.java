@@ -0,0 +1,13 @@
+package com.nuevo.tareas.repository;
+
+import com.nuevo.tareas.model.Usuario;
+
+import java.util.Optional;
+
+public interface UsuarioRepositoryCustom {
+
+    /**
+     * Busca por el identificador natural (email), resuelto desde la caché de segundo nivel cuando está.
+     */
+    Optional<Usuario> findByEmail(String email);
+}
@@ -0,0 +1,28 @@
+package com.nuevo.tareas.repository;
+
+import com.nuevo.tareas.model.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public class UsuarioRepositoryImpl implements UsuarioRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Una consulta derivada iría siempre a la base de datos (o a la caché de consultas, que se
+     * invalida entera con cada alta de usuario); la carga por natural id usa la caché
+     * email → id y luego la de entidades, y solo se invalida la entrada del usuario que cambia.
+     */
+    @Override
+    public Optional<Usuario> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Usuario.class)
+                .loadOptional(email);
+    }
+}
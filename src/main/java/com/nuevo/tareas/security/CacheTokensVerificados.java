@@ -0,0 +1,152 @@
+package com.nuevo.tareas.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché acotada de tokens cuya firma ya fue verificada. La clave es el SHA-256 del token,
+ * de modo que los tokens no quedan en memoria, y cada entrada vence junto con su token.
+ * Con capacidad 0 queda deshabilitada.
+ * <p>
+ * Llena, cada inserción libera sitio con una manecilla de reloj: un iterador que avanza por el
+ * mapa entre llamadas y examina {@value #MUESTRA} entradas, quitando las expiradas y, si no
+ * había ninguna, la que antes expira de la muestra. El coste por fallo es constante y los
+ * expirados se barren de forma amortizada, sin recorrer nunca el mapa completo.
+ */
+@Component
+public class CacheTokensVerificados {
+
+    private record Entrada(UsuarioAutenticado usuario, long expiraEn) {
+    }
+
+    private static final int MUESTRA = 8;
+
+    private final int capacidad;
+    private final Map<ByteBuffer, Entrada> entradas = new ConcurrentHashMap<>();
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    // 🔹 La manecilla sobrevive entre inserciones; solo la usa quien tiene el monitor
+    private final Object manecillaLock = new Object();
+    private Iterator<Entry<ByteBuffer, Entrada>> manecilla;
+
+    public CacheTokensVerificados(@Value("${jwt.cache.capacidad}") int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * @return el usuario del token si fue verificado antes y aún no expira; {@code null} en otro caso
+     */
+    public UsuarioAutenticado obtener(String token) {
+        if (capacidad <= 0) {
+            return null;
+        }
+
+        ByteBuffer clave = digest(token);
+        Entrada entrada = entradas.get(clave);
+        if (entrada == null) {
+            fallos.increment();
+            return null;
+        }
+        if (entrada.expiraEn() <= System.currentTimeMillis()) {
+            entradas.remove(clave, entrada);
+            fallos.increment();
+            return null;
+        }
+        aciertos.increment();
+        return entrada.usuario();
+    }
+
+    public void guardar(String token, UsuarioAutenticado usuario, long expiraEn) {
+        if (capacidad <= 0) {
+            return;
+        }
+
+        if (entradas.size() >= capacidad) {
+            liberarEspacio();
+        }
+        entradas.put(digest(token), new Entrada(usuario, expiraEn));
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public int getTamano() {
+        return entradas.size();
+    }
+
+    /**
+     * Avanza la manecilla hasta dejar la caché por debajo de su capacidad. Perder una entrada
+     * solo cuesta volver a verificar la firma.
+     */
+    private void liberarEspacio() {
+        long ahora = System.currentTimeMillis();
+        synchronized (manecillaLock) {
+            while (entradas.size() >= capacidad) {
+                if (!descartarDeLaMuestra(ahora)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} si el mapa quedó vacío entre tanto y no hay nada que descartar
+     */
+    private boolean descartarDeLaMuestra(long ahora) {
+        Entry<ByteBuffer, Entrada> victima = null;
+        boolean expiradas = false;
+        boolean reiniciada = false;
+        for (int examinadas = 0; examinadas < MUESTRA; examinadas++) {
+            if (manecilla == null || !manecilla.hasNext()) {
+                // Una vuelta completa por llamada como mucho: con menos de MUESTRA entradas basta
+                if (reiniciada) {
+                    break;
+                }
+                manecilla = entradas.entrySet().iterator();
+                reiniciada = true;
+                if (!manecilla.hasNext()) {
+                    break;
+                }
+            }
+            Entry<ByteBuffer, Entrada> entrada = manecilla.next();
+            if (entrada.getValue().expiraEn() <= ahora) {
+                expiradas |= entradas.remove(entrada.getKey(), entrada.getValue());
+            } else if (victima == null || entrada.getValue().expiraEn() < victima.getValue().expiraEn()) {
+                victima = entrada;
+            }
+        }
+        if (expiradas) {
+            return true;
+        }
+        if (victima == null) {
+            return false;
+        }
+        entradas.remove(victima.getKey(), victima.getValue());
+        return true;
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -1,23 +1,60 @@
 package com.nuevo.tareas.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+@Slf4j
 @Component
+@Profile("!reactivo")
 public class JwtFilter extends OncePerRequestFilter {
 
+    private static final String METRICA = "autenticacion.jwt";
+    private static final long INTERVALO_AVISO = TimeUnit.SECONDS.toNanos(10);
+
     private final JwtUtil jwtUtil;
+    private final RevalidacionUsuarios revalidacionUsuarios;
+    private final CacheTokensVerificados cacheTokens;
+
+    // 🔹 Se registran una vez; en cada petición solo se incrementan
+    private final Counter exitos;
+    private final Counter invalidos;
+    private final Counter ausentes;
+    private final Timer verificacion;
+
+    private final AtomicLong proximoAviso = new AtomicLong(System.nanoTime());
+    private final LongAdder invalidosSinAvisar = new LongAdder();
 
-    public JwtFilter(JwtUtil jwtUtil) {
+    public JwtFilter(JwtUtil jwtUtil, RevalidacionUsuarios revalidacionUsuarios,
+                     CacheTokensVerificados cacheTokens, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
+        this.revalidacionUsuarios = revalidacionUsuarios;
+        this.cacheTokens = cacheTokens;
+
+        this.exitos = Counter.builder(METRICA).tag("resultado", "exito")
+                .description("Peticiones según el resultado de la autenticación JWT").register(meterRegistry);
+        this.invalidos = Counter.builder(METRICA).tag("resultado", "invalido").register(meterRegistry);
+        this.ausentes = Counter.builder(METRICA).tag("resultado", "ausente").register(meterRegistry);
+        this.verificacion = Timer.builder(METRICA + ".verificacion")
+                .description("Tiempo en verificar un token (caché, firma y revalidación de usuario)")
+                .register(meterRegistry);
     }
 
     @Override
@@ -27,23 +64,56 @@ public class JwtFilter extends OncePerRequestFilter {
         String token = request.getHeader("Authorization");
 
         if (token != null && token.startsWith("Bearer ")) {
-            token = token.substring(7); // Remover "Bearer "
-            System.out.println("Token recibido: " + token); // DEPURACIÓN
+            String jwt = token.substring(7); // Remover "Bearer "
 
-            if (jwtUtil.validateToken(token)) {
-                String email = jwtUtil.extractEmail(token);
-                System.out.println("Usuario autenticado: " + email); // DEPURACIÓN
+            UsuarioAutenticado usuario = verificacion.record(() -> extraerUsuario(jwt));
+            if (usuario != null) {
+                exitos.increment();
+                log.debug("Usuario {} autenticado", usuario.id());
 
                 SecurityContextHolder.getContext().setAuthentication(
-                        new UsernamePasswordAuthenticationToken(email, null, List.of())
+                        new UsernamePasswordAuthenticationToken(usuario, null, List.of())
                 );
             } else {
-                System.out.println("Token inválido o expirado."); // DEPURACIÓN
+                invalidos.increment();
+                avisarTokenInvalido(request);
             }
         } else {
-            System.out.println("No se encontró un token en la solicitud."); // DEPURACIÓN
+            ausentes.increment();
         }
 
         chain.doFilter(request, response);
     }
+
+    private UsuarioAutenticado extraerUsuario(String token) {
+        UsuarioAutenticado usuario = cacheTokens.obtener(token);
+        if (usuario == null) {
+            try {
+                // 🔹 Un único parseo verifica firma y expiración y entrega los claims
+                Claims claims = jwtUtil.parseClaims(token);
+                usuario = jwtUtil.extractUsuario(claims);
+                if (claims.getExpiration() != null) {
+                    cacheTokens.guardar(token, usuario, claims.getExpiration().getTime());
+                }
+            } catch (JwtException e) {
+                return null;
+            }
+        }
+        return revalidacionUsuarios.existe(usuario.id()) ? usuario : null;
+    }
+
+    /**
+     * Muestreo: como mucho un aviso cada 10 segundos, con el número de tokens inválidos desde
+     * el anterior. Así una ráfaga de tokens falsos no inunda el log. Nunca se registra el token.
+     */
+    private void avisarTokenInvalido(HttpServletRequest request) {
+        invalidosSinAvisar.increment();
+        long ahora = System.nanoTime();
+        long proximo = proximoAviso.get();
+        if (ahora - proximo >= 0 && proximoAviso.compareAndSet(proximo, ahora + INTERVALO_AVISO)) {
+            log.warn("Tokens inválidos o expirados rechazados: {} (último desde {} en {} {})",
+                    invalidosSinAvisar.sumThenReset(), request.getRemoteAddr(),
+                    request.getMethod(), request.getRequestURI());
+        }
+    }
 }
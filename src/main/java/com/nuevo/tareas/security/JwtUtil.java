@@ -1,5 +1,6 @@
 package com.nuevo.tareas.security;
 
+import com.nuevo.tareas.model.Usuario;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,36 +11,65 @@ import javax.crypto.SecretKey;
 @Component
 public class JwtUtil {
 
+    private static final String CLAIM_USUARIO_ID = "uid";
+
     private final SecretKey key;
     private final long expirationTime;
+    private final JwtParser parser; // 🔹 Inmutable y thread-safe: se construye una sola vez
 
     public JwtUtil(@Value("${jwt.secret}") String secret, 
                    @Value("${jwt.expiration}") long expiration) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationTime = expiration;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+    }
+
+    public String generateToken(Usuario usuario) {
+        return generateToken(new UsuarioAutenticado(usuario.getId(), usuario.getEmail()));
     }
 
-    public String generateToken(String email) {
+    public String generateToken(UsuarioAutenticado usuario) {
         return Jwts.builder()
-                .setSubject(email)
+                .setSubject(usuario.email())
+                .claim(CLAIM_USUARIO_ID, usuario.id())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifica firma y expiración y devuelve los claims en una sola pasada.
+     *
+     * @throws JwtException si el token es inválido o está expirado
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
+    }
+
+    /**
+     * Construye el principal a partir de los claims. Los tokens emitidos antes de incluir
+     * el id de usuario se rechazan con {@link JwtException}.
+     */
+    public UsuarioAutenticado extractUsuario(Claims claims) {
+        Long usuarioId = claims.get(CLAIM_USUARIO_ID, Long.class);
+        if (usuarioId == null) {
+            throw new MalformedJwtException("El token no contiene el id de usuario");
+        }
+        return new UsuarioAutenticado(usuarioId, claims.getSubject());
+    }
+
+    public UsuarioAutenticado extractUsuario(String token) {
+        return extractUsuario(parseClaims(token));
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (JwtException e) {
             return false;
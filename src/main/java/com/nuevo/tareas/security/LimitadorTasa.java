@@ -0,0 +1,87 @@
+package com.nuevo.tareas.security;
+
+import com.nuevo.tareas.config.LimiteTasaProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin bloqueos implementado como GCRA: cada cubeta es un único {@link AtomicLong}
+ * con el instante teórico en que volvería a estar llena, y consumir es un compareAndSet.
+ * Una cubeta cuyo instante ya pasó está llena, así que descartarla no cambia el resultado;
+ * las que llevan {@code inactividad} sin uso se eliminan para acotar la memoria.
+ */
+@Component
+public class LimitadorTasa {
+
+    private final Map<String, AtomicLong> cubetas = new ConcurrentHashMap<>();
+    private final long inactividad;
+    private final int maximoClaves;
+    private final AtomicLong proximaLimpieza;
+
+    @Autowired
+    public LimitadorTasa(LimiteTasaProperties propiedades) {
+        this(propiedades.inactividad(), propiedades.maximoClaves());
+    }
+
+    public LimitadorTasa(Duration inactividad, int maximoClaves) {
+        this.inactividad = inactividad.toNanos();
+        this.maximoClaves = maximoClaves;
+        this.proximaLimpieza = new AtomicLong(System.nanoTime() + this.inactividad);
+    }
+
+    /**
+     * @param intervalo nanosegundos entre peticiones sostenidas
+     * @param rafaga    peticiones que se admiten seguidas con la cubeta llena
+     * @param ahora     instante actual según {@link System#nanoTime()}
+     * @return 0 si la petición se admite; si no, nanosegundos hasta que se admitiría
+     */
+    public long consumir(String clave, long intervalo, int rafaga, long ahora) {
+        limpiarSiToca(ahora);
+
+        AtomicLong cubeta = cubetas.computeIfAbsent(clave, c -> new AtomicLong(ahora));
+        long tolerancia = intervalo * rafaga;
+        while (true) {
+            long llenaEn = cubeta.get();
+            long nuevoLlenaEn = Math.max(llenaEn, ahora) + intervalo;
+            long exceso = nuevoLlenaEn - ahora - tolerancia;
+            if (exceso > 0) {
+                return exceso;
+            }
+            if (cubeta.compareAndSet(llenaEn, nuevoLlenaEn)) {
+                return 0;
+            }
+        }
+    }
+
+    public int getTamano() {
+        return cubetas.size();
+    }
+
+    /**
+     * Solo el hilo que gana el compareAndSet recorre el mapa; el resto sigue sin esperar.
+     */
+    private void limpiarSiToca(long ahora) {
+        long proxima = proximaLimpieza.get();
+        boolean vencida = ahora - proxima >= 0;
+        if ((vencida || cubetas.size() > maximoClaves)
+                && proximaLimpieza.compareAndSet(proxima, ahora + inactividad)) {
+            cubetas.values().removeIf(cubeta -> ahora - cubeta.get() > inactividad);
+
+            // 🔹 Ante una avalancha de claves distintas se sacrifican primero las cubetas ya llenas
+            if (cubetas.size() > maximoClaves) {
+                cubetas.values().removeIf(cubeta -> cubeta.get() <= ahora);
+            }
+            Iterator<AtomicLong> iterador = cubetas.values().iterator();
+            while (cubetas.size() > maximoClaves && iterador.hasNext()) {
+                iterador.next();
+                iterador.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.nuevo.tareas.security;
+
+import com.nuevo.tareas.config.LimiteTasaProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica los límites de {@link LimiteTasaProperties}. Va después de {@link JwtFilter}: las
+ * peticiones autenticadas se cuentan por email y las anónimas por IP del cliente.
+ */
+@Component
+@Profile("!reactivo")
+public class LimiteTasaFilter extends OncePerRequestFilter {
+
+    private record ReglaCompilada(int indice, PathPattern ruta, String metodo, long intervalo, int rafaga) {
+
+        boolean aplica(String metodoPeticion, PathContainer ruta) {
+            return (metodo == null || metodo.equalsIgnoreCase(metodoPeticion)) && this.ruta.matches(ruta);
+        }
+    }
+
+    private final LimitadorTasa limitador;
+    private final boolean habilitado;
+    private final List<ReglaCompilada> reglas;
+
+    public LimiteTasaFilter(LimitadorTasa limitador, LimiteTasaProperties propiedades) {
+        this.limitador = limitador;
+        this.habilitado = propiedades.habilitado();
+
+        List<LimiteTasaProperties.Regla> definidas = propiedades.reglas();
+        this.reglas = new ArrayList<>(definidas.size());
+        for (int i = 0; i < definidas.size(); i++) {
+            LimiteTasaProperties.Regla regla = definidas.get(i);
+            if (regla.peticiones() <= 0 || regla.rafaga() <= 0) {
+                throw new IllegalArgumentException("Regla de límite inválida para " + regla.ruta());
+            }
+            reglas.add(new ReglaCompilada(i,
+                    PathPatternParser.defaultInstance.parse(regla.ruta()),
+                    regla.metodo() == null || regla.metodo().isBlank() ? null : regla.metodo(),
+                    regla.periodo().toNanos() / regla.peticiones(),
+                    regla.rafaga()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || reglas.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        ReglaCompilada regla = buscarRegla(request);
+        if (regla != null) {
+            long espera = limitador.consumir(regla.indice() + "|" + identificar(request),
+                    regla.intervalo(), regla.rafaga(), System.nanoTime());
+            if (espera > 0) {
+                rechazar(response, espera);
+                return;
+            }
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private ReglaCompilada buscarRegla(HttpServletRequest request) {
+        PathContainer ruta = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        for (ReglaCompilada regla : reglas) {
+            if (regla.aplica(request.getMethod(), ruta)) {
+                return regla;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * La IP es la que ve el servidor; detrás de un proxy hay que activar
+     * server.forward-headers-strategy para que refleje la del cliente.
+     */
+    private static String identificar(HttpServletRequest request) {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion != null && autenticacion.getPrincipal() instanceof UsuarioAutenticado usuario) {
+            return "u:" + usuario.email();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void rechazar(HttpServletResponse response, long esperaNanos) throws IOException {
+        long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"Demasiadas peticiones\"}");
+    }
+}
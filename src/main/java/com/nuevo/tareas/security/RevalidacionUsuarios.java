@@ -0,0 +1,67 @@
+package com.nuevo.tareas.security;
+
+import com.nuevo.tareas.config.RutaDataSource;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Confirma cada cierto tiempo que el usuario de un token sigue existiendo, para que un usuario
+ * eliminado deje de autenticarse antes de que expire su token. Con TTL 0 queda deshabilitada.
+ */
+@Component
+public class RevalidacionUsuarios {
+
+    private static final int MAXIMO_ENTRADAS = 10_000;
+
+    private final UsuarioRepository usuarioRepository;
+    private final long ttl;
+    private final Map<Long, Long> vigentesHasta = new ConcurrentHashMap<>();
+
+    public RevalidacionUsuarios(UsuarioRepository usuarioRepository,
+                                @Value("${jwt.revalidacion-ttl}") long ttl) {
+        this.usuarioRepository = usuarioRepository;
+        this.ttl = ttl;
+    }
+
+    public boolean existe(Long usuarioId) {
+        if (vigente(usuarioId)) {
+            return true;
+        }
+        // 🔹 En la principal: en la réplica, un usuario recién registrado no existiría hasta la próxima copia
+        boolean existe = RutaDataSource.enPrimaria(() -> usuarioRepository.existsById(usuarioId));
+        registrar(usuarioId, existe);
+        return existe;
+    }
+
+    /**
+     * {@code true} si el usuario se confirmó hace menos del TTL y no hace falta consultar.
+     * Junto con {@link #registrar} permite revalidar con otra consulta (p. ej. la de R2DBC).
+     */
+    public boolean vigente(Long usuarioId) {
+        if (ttl <= 0) {
+            return true;
+        }
+        Long vigenteHasta = vigentesHasta.get(usuarioId);
+        return vigenteHasta != null && vigenteHasta > System.currentTimeMillis();
+    }
+
+    public void registrar(Long usuarioId, boolean existe) {
+        if (ttl <= 0) {
+            return;
+        }
+        if (!existe) {
+            vigentesHasta.remove(usuarioId);
+            return;
+        }
+
+        long ahora = System.currentTimeMillis();
+        if (vigentesHasta.size() >= MAXIMO_ENTRADAS) {
+            vigentesHasta.values().removeIf(hasta -> hasta <= ahora);
+        }
+        vigentesHasta.put(usuarioId, ahora + ttl);
+    }
+}
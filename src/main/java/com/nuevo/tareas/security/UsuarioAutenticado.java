@@ -0,0 +1,15 @@
+package com.nuevo.tareas.security;
+
+import java.security.Principal;
+
+/**
+ * Principal que JwtFilter coloca en el SecurityContext a partir de los claims del token,
+ * para que los controladores obtengan el dueño de la petición sin consultar la base de datos.
+ */
+public record UsuarioAutenticado(Long id, String email) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
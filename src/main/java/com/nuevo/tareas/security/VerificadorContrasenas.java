@@ -0,0 +1,90 @@
+package com.nuevo.tareas.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta las comparaciones BCrypt en un pool fijo con cola acotada. Una ráfaga de logins
+ * (p. ej. credential stuffing) solo puede ocupar esos hilos; cuando la cola se llena la
+ * petición se rechaza de inmediato en lugar de quitarle CPU al resto de la API.
+ */
+@Component
+public class VerificadorContrasenas {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long esperaMaxima;
+
+    public VerificadorContrasenas(PasswordEncoder passwordEncoder,
+                                  @Value("${auth.hashing.hilos}") int hilos,
+                                  @Value("${auth.hashing.cola}") int cola,
+                                  @Value("${auth.hashing.espera-maxima}") long esperaMaxima) {
+        this.passwordEncoder = passwordEncoder;
+        this.esperaMaxima = esperaMaxima;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "bcrypt-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * @throws RejectedExecutionException si el pool está saturado o la verificación no terminó a tiempo
+     */
+    public boolean coincide(String contrasena, String hash) {
+        Future<Boolean> resultado = executor.submit(() -> passwordEncoder.matches(contrasena, hash));
+        try {
+            return resultado.get(esperaMaxima, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            throw new RejectedExecutionException("Verificación de contraseña fuera de plazo", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Verificación de contraseña interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getEnCola() {
+        return executor.getQueue().size();
+    }
+
+    public int getActivos() {
+        return executor.getActiveCount();
+    }
+
+    // 🔹 La variante reactiva (VerificadorContrasenasReactivo) comparte el pool, la cola y el plazo
+    PasswordEncoder getPasswordEncoder() {
+        return passwordEncoder;
+    }
+
+    ThreadPoolExecutor getExecutor() {
+        return executor;
+    }
+
+    long getEsperaMaxima() {
+        return esperaMaxima;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+}
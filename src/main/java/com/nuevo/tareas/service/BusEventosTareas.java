@@ -0,0 +1,199 @@
+package com.nuevo.tareas.service;
+
+import com.nuevo.tareas.dto.EventoTarea;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bus en memoria que reparte los {@link EventoTarea} confirmados entre las conexiones SSE
+ * abiertas por cada usuario.
+ * <p>
+ * Publicar nunca bloquea a quien confirmó la transacción: cada suscriptor tiene una cola
+ * acotada y la escritura en el socket la hace un hilo virtual propio. Si un cliente no lee
+ * y su cola se llena, se le desconecta (el navegador reconecta solo y puede ponerse al día
+ * con GET /tareas/changes). Cada cierto tiempo se envía un comentario de latido para que
+ * proxies y balanceadores no cierren la conexión por inactividad.
+ */
+@Slf4j
+@Component
+public class BusEventosTareas {
+
+    private final long timeout;
+    private final int capacidadCola;
+    private final int maximoPorUsuario;
+
+    private final Map<Long, Set<Suscripcion>> suscripciones = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final LongAdder expulsiones = new LongAdder();
+
+    private final ExecutorService emisores = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService latidos = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "sse-latidos");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public BusEventosTareas(@Value("${tareas.stream.timeout}") long timeout,
+                            @Value("${tareas.stream.latido}") long latido,
+                            @Value("${tareas.stream.cola}") int capacidadCola,
+                            @Value("${tareas.stream.maximo-por-usuario}") int maximoPorUsuario) {
+        this.timeout = timeout;
+        this.capacidadCola = capacidadCola;
+        this.maximoPorUsuario = maximoPorUsuario;
+        latidos.scheduleAtFixedRate(this::enviarLatidos, latido, latido, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return la conexión SSE del nuevo suscriptor, o {@code null} si el usuario ya tiene el máximo abiertas
+     */
+    public SseEmitter suscribir(Long usuarioId) {
+        Suscripcion suscripcion = new Suscripcion(usuarioId, new SseEmitter(timeout));
+        boolean[] aceptada = {false};
+        suscripciones.compute(usuarioId, (id, actuales) -> {
+            Set<Suscripcion> conjunto = actuales != null ? actuales : ConcurrentHashMap.newKeySet();
+            if (conjunto.size() < maximoPorUsuario) {
+                conjunto.add(suscripcion);
+                aceptada[0] = true;
+            }
+            return conjunto;
+        });
+        if (!aceptada[0]) {
+            return null;
+        }
+        total.incrementAndGet();
+
+        SseEmitter emitter = suscripcion.emitter;
+        emitter.onCompletion(() -> quitar(suscripcion));
+        emitter.onTimeout(() -> quitar(suscripcion));
+        emitter.onError(error -> quitar(suscripcion));
+        return emitter;
+    }
+
+    /**
+     * Se ejecuta tras el commit (o de inmediato si no hay transacción), en el hilo que escribió.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publicar(EventoTarea evento) {
+        Set<Suscripcion> delUsuario = suscripciones.get(evento.usuarioId());
+        if (delUsuario == null) {
+            return;
+        }
+        for (Suscripcion suscripcion : delUsuario) {
+            suscripcion.encolar(SseEmitter.event()
+                    .name("tarea")
+                    .data(evento, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    public int getSuscripciones() {
+        return total.get();
+    }
+
+    public long getExpulsiones() {
+        return expulsiones.sum();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        latidos.shutdownNow();
+        suscripciones.values().forEach(conjunto -> conjunto.forEach(s -> s.emitter.complete()));
+        emisores.shutdownNow();
+    }
+
+    private void enviarLatidos() {
+        for (Set<Suscripcion> conjunto : suscripciones.values()) {
+            for (Suscripcion suscripcion : conjunto) {
+                suscripcion.encolar(SseEmitter.event().comment("latido"));
+            }
+        }
+    }
+
+    private void quitar(Suscripcion suscripcion) {
+        if (suscripcion.cerrada.compareAndSet(false, true)) {
+            total.decrementAndGet();
+            suscripciones.computeIfPresent(suscripcion.usuarioId, (id, conjunto) -> {
+                conjunto.remove(suscripcion);
+                return conjunto.isEmpty() ? null : conjunto;
+            });
+        }
+    }
+
+    private void expulsar(Suscripcion suscripcion) {
+        expulsiones.increment();
+        log.warn("Conexión SSE del usuario {} cerrada: no consume eventos", suscripcion.usuarioId);
+        quitar(suscripcion);
+        suscripcion.emitter.complete();
+    }
+
+    private final class Suscripcion {
+
+        private final Long usuarioId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pendientes = new ArrayBlockingQueue<>(capacidadCola);
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private final AtomicBoolean cerrada = new AtomicBoolean();
+
+        private Suscripcion(Long usuarioId, SseEmitter emitter) {
+            this.usuarioId = usuarioId;
+            this.emitter = emitter;
+        }
+
+        void encolar(SseEmitter.SseEventBuilder evento) {
+            if (cerrada.get()) {
+                return;
+            }
+            if (!pendientes.offer(evento)) {
+                expulsar(this);
+                return;
+            }
+            programar();
+        }
+
+        /**
+         * Como mucho un hilo vaciando la cola de cada suscriptor, así los eventos salen en orden.
+         */
+        private void programar() {
+            if (enviando.compareAndSet(false, true)) {
+                emisores.execute(this::vaciar);
+            }
+        }
+
+        private void vaciar() {
+            try {
+                SseEmitter.SseEventBuilder evento;
+                while (!cerrada.get() && (evento = pendientes.poll()) != null) {
+                    emitter.send(evento);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 🔹 El cliente se fue; SseEmitter ya notificó el error y onError lo quita del bus
+                quitar(this);
+                return;
+            } finally {
+                enviando.set(false);
+            }
+            // Un evento pudo llegar entre el último poll y liberar el indicador
+            if (!pendientes.isEmpty() && !cerrada.get()) {
+                programar();
+            }
+        }
+    }
+}
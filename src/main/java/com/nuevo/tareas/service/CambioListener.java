@@ -0,0 +1,28 @@
+package com.nuevo.tareas.service;
+
+import com.nuevo.tareas.model.ConCambio;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Asigna un número de cambio en cada INSERT o UPDATE de las entidades {@link ConCambio}, sea
+ * cual sea el camino de escritura. Hibernate lo instancia como bean de Spring; el reloj se
+ * resuelve al primer uso para no crear un ciclo con el EntityManagerFactory.
+ */
+@Component
+public class CambioListener {
+
+    private final ObjectProvider<RelojCambios> relojCambios;
+
+    public CambioListener(ObjectProvider<RelojCambios> relojCambios) {
+        this.relojCambios = relojCambios;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void asignarCambio(ConCambio entidad) {
+        entidad.setCambio(relojCambios.getObject().siguiente());
+    }
+}
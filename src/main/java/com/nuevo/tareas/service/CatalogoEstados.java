@@ -0,0 +1,50 @@
+package com.nuevo.tareas.service;
+
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.repository.EstadoTareaRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registro en memoria de los estados de tarea. Se carga al iniciar (ver DataLoader) y las
+ * consultas no tocan la base de datos. Si la tabla cambia, {@link #refrescar()} publica una
+ * nueva instantánea inmutable sin bloquear a los lectores.
+ */
+@Component
+public class CatalogoEstados {
+
+    private record Instantanea(Map<Long, EstadoTarea> porId, Map<String, EstadoTarea> porNombre) {
+    }
+
+    private final EstadoTareaRepository estadoTareaRepository;
+    private volatile Instantanea instantanea = new Instantanea(Map.of(), Map.of());
+
+    public CatalogoEstados(EstadoTareaRepository estadoTareaRepository) {
+        this.estadoTareaRepository = estadoTareaRepository;
+    }
+
+    public void refrescar() {
+        List<EstadoTarea> estados = estadoTareaRepository.findAll();
+        instantanea = new Instantanea(
+                estados.stream().collect(Collectors.toUnmodifiableMap(EstadoTarea::getId, Function.identity())),
+                estados.stream().collect(Collectors.toUnmodifiableMap(EstadoTarea::getNombre, Function.identity())));
+    }
+
+    public Optional<EstadoTarea> porId(Long id) {
+        return Optional.ofNullable(instantanea.porId().get(id));
+    }
+
+    public Optional<EstadoTarea> porNombre(String nombre) {
+        return Optional.ofNullable(instantanea.porNombre().get(nombre));
+    }
+
+    public Collection<EstadoTarea> todos() {
+        return instantanea.porId().values();
+    }
+}
@@ -0,0 +1,269 @@
+package com.nuevo.tareas.service;
+
+import com.nuevo.tareas.dto.ResumenTareas;
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contadores de tareas por (usuario, estado, día de vencimiento) que alimentan GET /tareas/resumen
+ * sin recorrer la tabla de tareas.
+ * <p>
+ * {@link TareaService} informa cada alta, baja o cambio de estado o de fecha con
+ * {@link #sumar}. Los incrementos se acumulan durante la transacción y se escriben justo antes
+ * del commit, en la misma transacción y en orden de clave: un lote de 500 altas del mismo día
+ * es una sola fila, los bloqueos duran lo mínimo y dos transacciones nunca los toman en orden
+ * opuesto. La conciliación recalcula los contadores desde la tabla de tareas
+ * {@code tareas.resumen.conciliacion-inicial} milisegundos después de arrancar (0 = al arrancar)
+ * y luego cada {@code tareas.resumen.conciliacion}, y corrige los cambios hechos sin pasar por
+ * TareaService.
+ */
+@Slf4j
+@Component
+public class ContadoresTareas {
+
+    private static final String ACTUALIZAR = "update contadores_tareas set cantidad = cantidad + ? "
+            + "where usuario_id = ? and estado_id = ? and dia = ?";
+    private static final String INSERTAR = "insert into contadores_tareas (usuario_id, estado_id, dia, cantidad) "
+            + "values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogoEstados catalogoEstados;
+    private final UsuarioRepository usuarioRepository;
+    private final VersionesColeccion versionesColeccion;
+    private final TransactionTemplate transaccion;
+    private final long retrasoConciliacion;
+    private final long periodoConciliacion;
+
+    private final ScheduledExecutorService hilo = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread nuevo = new Thread(tarea, "conciliacion-contadores");
+        nuevo.setDaemon(true);
+        return nuevo;
+    });
+
+    private record Clave(Long estadoId, LocalDate dia) {
+    }
+
+    private record ClaveUsuario(Long usuarioId, Long estadoId, LocalDate dia) {
+    }
+
+    private static final Comparator<ClaveUsuario> ORDEN = Comparator.comparing(ClaveUsuario::usuarioId)
+            .thenComparing(ClaveUsuario::estadoId)
+            .thenComparing(ClaveUsuario::dia);
+
+    public ContadoresTareas(JdbcTemplate jdbcTemplate, CatalogoEstados catalogoEstados,
+                            UsuarioRepository usuarioRepository, VersionesColeccion versionesColeccion,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${tareas.resumen.conciliacion-inicial}") long retrasoConciliacion,
+                            @Value("${tareas.resumen.conciliacion}") long periodoConciliacion) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogoEstados = catalogoEstados;
+        this.usuarioRepository = usuarioRepository;
+        this.versionesColeccion = versionesColeccion;
+        this.transaccion = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.retrasoConciliacion = retrasoConciliacion;
+        this.periodoConciliacion = periodoConciliacion;
+    }
+
+    /**
+     * Debe llamarse dentro de la transacción que escribe la tarea.
+     */
+    public void sumar(Long usuarioId, Long estadoId, LocalDateTime fechaVencimiento, int delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Los contadores solo se actualizan dentro de una transacción");
+        }
+        pendientes().merge(new ClaveUsuario(usuarioId, estadoId, fechaVencimiento.toLocalDate()), delta, Integer::sum);
+    }
+
+    @Transactional(readOnly = true)
+    public ResumenTareas resumen(Long usuarioId) {
+        LocalDate hoy = LocalDate.now();
+        LocalDate finSemana = hoy.plusDays(6);
+        Map<Long, String> nombres = new TreeMap<>();
+        catalogoEstados.todos().forEach(estado -> nombres.put(estado.getId(), estado.getNombre()));
+
+        Map<String, Long> porEstado = new LinkedHashMap<>();
+        nombres.values().forEach(nombre -> porEstado.put(nombre, 0L));
+        long[] totales = new long[3];
+        jdbcTemplate.query("select estado_id, dia, cantidad from contadores_tareas where usuario_id = ? and cantidad <> 0",
+                fila -> {
+                    String estado = nombres.get(fila.getLong(1));
+                    LocalDate dia = fila.getObject(2, LocalDate.class);
+                    long cantidad = fila.getLong(3);
+                    porEstado.merge(estado, cantidad, Long::sum);
+                    totales[0] += cantidad;
+                    boolean abierta = EstadoTarea.ABIERTOS.contains(estado);
+                    if (EstadoTarea.VENCIDA.equals(estado) || (abierta && dia.isBefore(hoy))) {
+                        totales[1] += cantidad;
+                    } else if (abierta && !dia.isAfter(finSemana)) {
+                        totales[2] += cantidad;
+                    }
+                }, usuarioId);
+        return new ResumenTareas(totales[0], porEstado, totales[1], totales[2]);
+    }
+
+    /**
+     * Recalcula los contadores del usuario desde la tabla de tareas.
+     * <p>
+     * Primero bloquea las filas existentes, así quien quiera sumar sobre ellas espera a que
+     * termine; sus tareas todavía no estaban confirmadas al contar y su incremento se aplica
+     * después. Solo se escriben las claves que difieren, de modo que una fila nueva creada
+     * mientras tanto por otra transacción no se pisa.
+     *
+     * @return {@code true} si algún contador estaba mal
+     */
+    public boolean conciliar(Long usuarioId) {
+        Boolean corregido = transaccion.execute(estado -> {
+            Map<Clave, Long> actuales = new HashMap<>();
+            jdbcTemplate.query("select estado_id, dia, cantidad from contadores_tareas where usuario_id = ? for update",
+                    fila -> {
+                        actuales.put(new Clave(fila.getLong(1), fila.getObject(2, LocalDate.class)), fila.getLong(3));
+                    }, usuarioId);
+
+            Map<Clave, Long> esperados = new HashMap<>();
+            jdbcTemplate.query("select estado_id, cast(fecha_vencimiento as date), count(*) from tareas "
+                            + "where usuario_id = ? group by estado_id, cast(fecha_vencimiento as date)",
+                    fila -> {
+                        esperados.put(new Clave(fila.getLong(1), fila.getObject(2, LocalDate.class)), fila.getLong(3));
+                    }, usuarioId);
+
+            Set<Clave> claves = new HashSet<>(actuales.keySet());
+            claves.addAll(esperados.keySet());
+            boolean distinto = false;
+            for (Clave clave : claves) {
+                Long actual = actuales.get(clave);
+                long esperado = esperados.getOrDefault(clave, 0L);
+                if (actual != null && actual == 0 && esperado == 0) {
+                    // Fila que quedó en cero: ya no hace falta
+                    jdbcTemplate.update("delete from contadores_tareas where usuario_id = ? and estado_id = ? and dia = ?",
+                            usuarioId, clave.estadoId(), clave.dia());
+                } else if (!Objects.equals(actual, esperado)) {
+                    distinto = true;
+                    fijar(usuarioId, clave, esperado, actual != null);
+                }
+            }
+            if (distinto) {
+                versionesColeccion.incrementarTrasCommit(usuarioId);
+            }
+            return distinto;
+        });
+        return Boolean.TRUE.equals(corregido);
+    }
+
+    /**
+     * @return cantidad de usuarios cuyos contadores hubo que corregir
+     */
+    public int conciliarTodos() {
+        int corregidos = 0;
+        for (Long usuarioId : usuarioRepository.findAllIds()) {
+            if (conciliar(usuarioId)) {
+                corregidos++;
+            }
+        }
+        return corregidos;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        hilo.scheduleWithFixedDelay(this::conciliacionProgramada, retrasoConciliacion, periodoConciliacion,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        hilo.shutdownNow();
+    }
+
+    private void conciliacionProgramada() {
+        try {
+            long inicio = System.nanoTime();
+            int corregidos = conciliarTodos();
+            log.info("Conciliación de contadores: {} usuarios corregidos en {} ms",
+                    corregidos, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría la ejecución periódica
+            log.error("Error al conciliar los contadores de tareas", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<ClaveUsuario, Integer> pendientes() {
+        Map<ClaveUsuario, Integer> pendientes = (Map<ClaveUsuario, Integer>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            Map<ClaveUsuario, Integer> nuevos = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    aplicar(nuevos);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ContadoresTareas.this);
+                }
+            });
+            pendientes = nuevos;
+        }
+        return pendientes;
+    }
+
+    private void aplicar(Map<ClaveUsuario, Integer> deltas) {
+        List<Map.Entry<ClaveUsuario, Integer>> ordenados = deltas.entrySet().stream()
+                .filter(delta -> delta.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey(ORDEN))
+                .toList();
+        for (Map.Entry<ClaveUsuario, Integer> delta : ordenados) {
+            ClaveUsuario clave = delta.getKey();
+            Object[] argumentos = {delta.getValue(), clave.usuarioId(), clave.estadoId(), clave.dia()};
+            if (jdbcTemplate.update(ACTUALIZAR, argumentos) == 0) {
+                try {
+                    jdbcTemplate.update(INSERTAR, clave.usuarioId(), clave.estadoId(), clave.dia(), delta.getValue());
+                } catch (DuplicateKeyException e) {
+                    // Otra transacción creó la fila entre medias
+                    jdbcTemplate.update(ACTUALIZAR, argumentos);
+                }
+            }
+        }
+    }
+
+    private void fijar(Long usuarioId, Clave clave, long cantidad, boolean existe) {
+        if (existe) {
+            jdbcTemplate.update("update contadores_tareas set cantidad = ? where usuario_id = ? and estado_id = ? and dia = ?",
+                    cantidad, usuarioId, clave.estadoId(), clave.dia());
+            return;
+        }
+        try {
+            jdbcTemplate.update(INSERTAR, usuarioId, clave.estadoId(), clave.dia(), cantidad);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update("update contadores_tareas set cantidad = ? where usuario_id = ? and estado_id = ? and dia = ?",
+                    cantidad, usuarioId, clave.estadoId(), clave.dia());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.nuevo.tareas.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nuevo.tareas.dto.FormatoExportacion;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.repository.TareaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Escribe todas las tareas de un usuario fila a fila. Las filas llegan como DTO, fuera del contexto
+ * de persistencia, así la memoria no crece con la cantidad de tareas exportadas.
+ */
+@Service
+public class ExportacionTareas {
+
+    private static final String ENCABEZADO_CSV = "id,titulo,descripcion,fechaCreacion,fechaVencimiento,estado";
+
+    private final TareaRepository tareaRepository;
+    private final ObjectWriter jsonWriter;
+
+    public ExportacionTareas(TareaRepository tareaRepository, ObjectMapper objectMapper) {
+        this.tareaRepository = tareaRepository;
+        // 🔹 writerFor resuelve el serializador de TareaDTO una vez, no en cada fila
+        this.jsonWriter = objectMapper.writerFor(TareaDTO.class);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportar(Long usuarioId, FormatoExportacion formato, OutputStream salida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        if (formato == FormatoExportacion.CSV) {
+            writer.write(ENCABEZADO_CSV);
+            writer.write('\n');
+        }
+
+        try (Stream<TareaDTO> tareas = tareaRepository.streamByUsuarioId(usuarioId)) {
+            Iterator<TareaDTO> iterador = tareas.iterator();
+            while (iterador.hasNext()) {
+                TareaDTO tarea = iterador.next();
+                if (formato == FormatoExportacion.CSV) {
+                    escribirCsv(tarea, writer);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(tarea));
+                }
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private static void escribirCsv(TareaDTO tarea, Writer writer) throws IOException {
+        writer.write(String.valueOf(tarea.id()));
+        writer.write(',');
+        writer.write(campoCsv(tarea.titulo()));
+        writer.write(',');
+        writer.write(campoCsv(tarea.descripcion()));
+        writer.write(',');
+        writer.write(String.valueOf(tarea.fechaCreacion()));
+        writer.write(',');
+        writer.write(String.valueOf(tarea.fechaVencimiento()));
+        writer.write(',');
+        writer.write(campoCsv(tarea.estado().nombre()));
+    }
+
+    /**
+     * Un valor que empieza por {@code = + - @}, tabulador o retorno de carro se prefija con {@code '}
+     * para que Excel o Sheets lo muestren como texto y no lo evalúen como fórmula (inyección CSV).
+     */
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (!valor.isEmpty() && "=+-@\t\r".indexOf(valor.charAt(0)) >= 0) {
+            valor = "'" + valor;
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
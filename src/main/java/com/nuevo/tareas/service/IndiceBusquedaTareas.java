@@ -0,0 +1,347 @@
+package com.nuevo.tareas.service;
+
+import com.nuevo.tareas.config.RutaDataSource;
+import com.nuevo.tareas.dto.EventoTarea;
+import com.nuevo.tareas.dto.ResultadosBusqueda;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.repository.TareaRepository;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido en memoria, uno por usuario, sobre el título y la descripción de sus tareas.
+ * <p>
+ * Los términos se pasan a minúsculas y se les quitan las tildes ("Reunión" y "reunion" son el
+ * mismo término). El índice de un usuario se carga desde la base de datos la primera vez que
+ * busca (o al arrancar, con {@code tareas.busqueda.precarga: true}); a partir de ahí se mantiene
+ * con los {@link EventoTarea} que publica {@link TareaService} tras cada commit. Las búsquedas no
+ * consultan la base de datos: el índice guarda también el DTO de cada tarea.
+ * <p>
+ * Se guardan como mucho {@code tareas.busqueda.maximo-usuarios} índices; al pasarse se descarta
+ * el que lleva más tiempo sin buscar, que se vuelve a cargar si su usuario busca de nuevo.
+ */
+@Slf4j
+@Component
+public class IndiceBusquedaTareas {
+
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "con", "de", "del", "el", "en", "la", "las", "lo", "los", "o", "para", "por",
+            "que", "se", "su", "un", "una", "y");
+    // El último término también busca por prefijo ("reun" encuentra "reunión") si tiene al menos esta longitud
+    private static final int PREFIJO_MINIMO = 2;
+
+    private static final Comparator<TareaDTO> ORDEN = Comparator
+            .comparing(TareaDTO::fechaVencimiento, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TareaDTO::id);
+
+    private final TareaRepository tareaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate lectura;
+    private final boolean precarga;
+    private final int maximoUsuarios;
+    private final Map<Long, IndiceUsuario> indices = new ConcurrentHashMap<>();
+
+    public IndiceBusquedaTareas(TareaRepository tareaRepository, UsuarioRepository usuarioRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${tareas.busqueda.precarga}") boolean precarga,
+                                @Value("${tareas.busqueda.maximo-usuarios}") int maximoUsuarios) {
+        this.tareaRepository = tareaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.precarga = precarga;
+        this.maximoUsuarios = maximoUsuarios;
+        this.lectura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.lectura.setReadOnly(true);
+    }
+
+    /**
+     * Tareas que contienen todos los términos de la consulta, por fecha de vencimiento.
+     */
+    public ResultadosBusqueda buscar(Long usuarioId, String consulta, int limite) {
+        List<String> terminos = terminos(consulta);
+        if (terminos.isEmpty()) {
+            return new ResultadosBusqueda(0, List.of());
+        }
+
+        IndiceUsuario indice = indice(usuarioId);
+        indice.asegurarCargado();
+        return indice.buscar(terminos, limite);
+    }
+
+    public int getUsuariosEnMemoria() {
+        return indices.size();
+    }
+
+    /**
+     * Solo se actualizan los índices ya creados; el de un usuario que aún no buscó se cargará
+     * completo desde la base de datos cuando lo haga.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void actualizar(EventoTarea evento) {
+        IndiceUsuario indice = indices.get(evento.usuarioId());
+        if (indice != null) {
+            indice.aplicar(evento);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        // 🔹 Sin precarga el arranque no lee todas las tareas; cada índice se carga en la primera búsqueda
+        if (precarga) {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Carga los índices de los primeros {@code maximo-usuarios} usuarios; el resto, en su primera búsqueda.
+     */
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        List<Long> usuarios = usuarioRepository.findAllIds();
+        List<Long> cargados = usuarios.subList(0, Math.min(usuarios.size(), maximoUsuarios));
+        for (Long usuarioId : cargados) {
+            indice(usuarioId).asegurarCargado();
+        }
+        log.info("Índice de búsqueda cargado para {} de {} usuarios en {} ms",
+                cargados.size(), usuarios.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private IndiceUsuario indice(Long usuarioId) {
+        IndiceUsuario indice = indices.get(usuarioId);
+        if (indice == null) {
+            indice = indices.computeIfAbsent(usuarioId, IndiceUsuario::new);
+            if (indices.size() > maximoUsuarios) {
+                descartarMenosUsado(indice);
+            }
+        }
+        indice.ultimoUso = System.nanoTime();
+        return indice;
+    }
+
+    /**
+     * Recorre los índices solo al crear uno nuevo por encima del tope. Un índice descartado que
+     * otro hilo todavía usa termina su búsqueda o su evento sin efecto sobre el que lo sustituya.
+     */
+    private void descartarMenosUsado(IndiceUsuario nuevo) {
+        while (indices.size() > maximoUsuarios) {
+            IndiceUsuario menosUsado = null;
+            for (IndiceUsuario candidato : indices.values()) {
+                if (candidato != nuevo && (menosUsado == null || candidato.ultimoUso - menosUsado.ultimoUso < 0)) {
+                    menosUsado = candidato;
+                }
+            }
+            if (menosUsado == null) {
+                return;
+            }
+            indices.remove(menosUsado.usuarioId, menosUsado);
+        }
+    }
+
+    /**
+     * Separa en palabras, quita tildes y pasa a minúsculas; descarta las palabras vacías.
+     * Los términos repetidos aparecen una sola vez, en su primer orden de aparición.
+     */
+    static List<String> terminos(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String plano = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> terminos = new LinkedHashSet<>();
+        for (String palabra : SEPARADOR.split(plano)) {
+            if (!palabra.isEmpty() && !PALABRAS_VACIAS.contains(palabra)) {
+                terminos.add(palabra);
+            }
+        }
+        return new ArrayList<>(terminos);
+    }
+
+    private final class IndiceUsuario {
+
+        private final Long usuarioId;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final NavigableMap<String, Set<Long>> porTermino = new TreeMap<>();
+        private final Map<Long, Documento> documentos = new HashMap<>();
+        private volatile boolean cargado;
+        private volatile long ultimoUso = System.nanoTime();
+
+        private IndiceUsuario(Long usuarioId) {
+            this.usuarioId = usuarioId;
+        }
+
+        /**
+         * La carga se hace con el cerrojo de escritura tomado: los eventos que lleguen mientras
+         * tanto esperan y se aplican encima, y los anteriores ya están en lo que se lee.
+         */
+        void asegurarCargado() {
+            if (cargado) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                if (!cargado) {
+                    // 🔹 Desde la principal: lo que falte en la réplica no llegaría después por eventos
+                    RutaDataSource.enPrimaria(() -> lectura.execute(estado -> {
+                        try (Stream<TareaDTO> existentes = tareaRepository.streamByUsuarioId(usuarioId)) {
+                            existentes.forEach(this::poner);
+                        }
+                        return null;
+                    }));
+                    cargado = true;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void aplicar(EventoTarea evento) {
+            lock.writeLock().lock();
+            try {
+                switch (evento.tipo()) {
+                    case CREADA, ACTUALIZADA -> poner(evento.tarea());
+                    case ELIMINADA -> quitar(evento.id());
+                    default -> {
+                        // Los avisos de vencimiento no cambian el texto
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        ResultadosBusqueda buscar(List<String> consulta, int limite) {
+            lock.readLock().lock();
+            try {
+                String ultimo = consulta.get(consulta.size() - 1);
+                String prefijo = ultimo.length() >= PREFIJO_MINIMO ? ultimo : null;
+                List<String> exactos = prefijo != null ? consulta.subList(0, consulta.size() - 1) : consulta;
+
+                List<Set<Long>> listas = new ArrayList<>(exactos.size());
+                for (String termino : exactos) {
+                    Set<Long> ids = porTermino.get(termino);
+                    if (ids == null) {
+                        return new ResultadosBusqueda(0, List.of());
+                    }
+                    listas.add(ids);
+                }
+
+                // 🔹 Se recorre la lista más corta y se comprueba en las demás; el prefijo se
+                // comprueba contra los términos de cada candidata en vez de unir sus listas
+                Iterable<Long> candidatas;
+                if (!listas.isEmpty()) {
+                    listas.sort(Comparator.comparingInt(Set::size));
+                    candidatas = listas.get(0);
+                } else {
+                    candidatas = conPrefijo(prefijo);
+                    prefijo = null;
+                }
+
+                int total = 0;
+                PriorityQueue<TareaDTO> primeras = new PriorityQueue<>(ORDEN.reversed());
+                for (Long id : candidatas) {
+                    Documento documento = documentos.get(id);
+                    if (!enTodas(id, listas) || (prefijo != null && !documento.tienePrefijo(prefijo))) {
+                        continue;
+                    }
+                    total++;
+                    primeras.add(documento.tarea());
+                    if (primeras.size() > limite) {
+                        primeras.poll();
+                    }
+                }
+
+                List<TareaDTO> tareas = new ArrayList<>(primeras);
+                tareas.sort(ORDEN);
+                return new ResultadosBusqueda(total, tareas);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private Iterable<Long> conPrefijo(String prefijo) {
+            NavigableMap<String, Set<Long>> rango = porTermino.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false);
+            if (rango.size() == 1) {
+                return rango.firstEntry().getValue();
+            }
+            Set<Long> ids = new HashSet<>();
+            rango.values().forEach(ids::addAll);
+            return ids;
+        }
+
+        private void poner(TareaDTO tarea) {
+            Documento anterior = documentos.get(tarea.id());
+            if (anterior != null) {
+                // Un evento atrasado no debe pisar una versión más nueva
+                Long versionAnterior = anterior.tarea().version();
+                if (versionAnterior != null && tarea.version() != null && versionAnterior > tarea.version()) {
+                    return;
+                }
+                quitar(tarea.id());
+            }
+            Documento documento = new Documento(tarea, terminos(tarea.titulo() + " " + tarea.descripcion()));
+            documentos.put(tarea.id(), documento);
+            for (String termino : documento.terminos()) {
+                porTermino.computeIfAbsent(termino, t -> new HashSet<>()).add(tarea.id());
+            }
+        }
+
+        private void quitar(Long id) {
+            Documento anterior = documentos.remove(id);
+            if (anterior == null) {
+                return;
+            }
+            for (String termino : anterior.terminos()) {
+                Set<Long> ids = porTermino.get(termino);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    porTermino.remove(termino);
+                }
+            }
+        }
+    }
+
+    private record Documento(TareaDTO tarea, List<String> terminos) {
+
+        boolean tienePrefijo(String prefijo) {
+            for (String termino : terminos) {
+                if (termino.startsWith(prefijo)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static boolean enTodas(Long id, List<Set<Long>> listas) {
+        for (int i = 1; i < listas.size(); i++) {
+            if (!listas.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
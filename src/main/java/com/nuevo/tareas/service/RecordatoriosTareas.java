@@ -0,0 +1,337 @@
+package com.nuevo.tareas.service;
+
+import com.nuevo.tareas.config.RutaDataSource;
+import com.nuevo.tareas.dto.EventoTarea;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.dto.TipoEvento;
+import com.nuevo.tareas.dto.VencimientoTarea;
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.repository.TareaRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Emite un {@link EventoTarea} POR_VENCER {@code antelacion} antes de la fecha de vencimiento de
+ * cada tarea abierta y uno VENCIDA al llegar la fecha; opcionalmente pasa la tarea al estado Vencida.
+ * <p>
+ * Solo se guardan en memoria los vencimientos de la próxima {@code ventana}, en una
+ * {@link RuedaTemporizadores}. La ventana se carga al arrancar (o {@code carga-inicial}
+ * milisegundos después, en segundo plano) y se extiende con una consulta por rango cada media ventana; entre medias la tabla no se consulta salvo para confirmar las
+ * tareas cuyo aviso toca. Los cambios hechos por la API llegan por los eventos tras el commit.
+ * <p>
+ * Ninguna consulta se hace con el cerrojo tomado: los eventos que llegan tras cada commit lo
+ * toman y no deben esperar a la base de datos.
+ */
+@Slf4j
+@Component
+public class RecordatoriosTareas {
+
+    private static final int RANURAS = 60;
+
+    private final TareaRepository tareaRepository;
+    private final TareaService tareaService;
+    private final CatalogoEstados catalogoEstados;
+    private final ApplicationEventPublisher eventos;
+    private final boolean habilitado;
+    private final long resolucion;
+    private final long antelacion;
+    private final long ventana;
+    private final long retrasoCarga;
+    private final boolean marcarVencidas;
+
+    private final ScheduledExecutorService hilo = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread nuevo = new Thread(tarea, "recordatorios");
+        nuevo.setDaemon(true);
+        return nuevo;
+    });
+
+    // Protegidos por this
+    private RuedaTemporizadores<Aviso> rueda;
+    private final Map<Long, Programacion> programadas = new HashMap<>();
+    private LocalDateTime horizonte;
+    // Mientras se consulta la extensión, los eventos hasta esta fecha ya se programan (null si no se extiende)
+    private LocalDateTime extendiendoHasta;
+
+    /**
+     * Los avisos de una tarea siguen valiendo mientras su programación sea la vigente en
+     * {@code programadas}; cambiar la fecha crea otra y deja huérfanas las anteriores en la rueda.
+     */
+    private static final class Programacion {
+        private VencimientoTarea vencimiento;
+
+        private Programacion(VencimientoTarea vencimiento) {
+            this.vencimiento = vencimiento;
+        }
+    }
+
+    private record Aviso(Programacion programacion, TipoEvento tipo) {
+    }
+
+    private record Disparo(VencimientoTarea vencimiento, TipoEvento tipo) {
+    }
+
+    public RecordatoriosTareas(TareaRepository tareaRepository, TareaService tareaService,
+                               CatalogoEstados catalogoEstados, ApplicationEventPublisher eventos,
+                               @Value("${tareas.recordatorios.habilitado}") boolean habilitado,
+                               @Value("${tareas.recordatorios.resolucion}") long resolucion,
+                               @Value("${tareas.recordatorios.antelacion}") long antelacion,
+                               @Value("${tareas.recordatorios.ventana}") long ventana,
+                               @Value("${tareas.recordatorios.marcar-vencidas}") boolean marcarVencidas,
+                               @Value("${tareas.recordatorios.carga-inicial}") long retrasoCarga) {
+        if (antelacion > ventana / 2) {
+            // Al extender la ventana, el aviso de lo que entra no debe haber pasado ya
+            throw new IllegalArgumentException("tareas.recordatorios.antelacion no puede superar la mitad de la ventana");
+        }
+        this.tareaRepository = tareaRepository;
+        this.tareaService = tareaService;
+        this.catalogoEstados = catalogoEstados;
+        this.eventos = eventos;
+        this.habilitado = habilitado;
+        this.resolucion = resolucion;
+        this.antelacion = antelacion;
+        this.ventana = ventana;
+        this.marcarVencidas = marcarVencidas;
+        this.retrasoCarga = retrasoCarga;
+    }
+
+    /**
+     * Tras DataLoader, que es quien carga el catálogo de estados. Con {@code carga-inicial} la
+     * ventana se carga después en el hilo de los recordatorios, fuera del arranque; hasta entonces
+     * los eventos se ignoran, porque la consulta ya leerá esos cambios confirmados.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        long listo = System.currentTimeMillis();
+        if (retrasoCarga <= 0) {
+            cargar(listo);
+            return;
+        }
+        hilo.schedule(() -> {
+            try {
+                cargar(listo);
+            } catch (RuntimeException e) {
+                // avanzar ya está programado y vuelve a intentar la extensión en el siguiente paso
+                log.error("Error al cargar la ventana de recordatorios", e);
+            }
+        }, retrasoCarga, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param listo hora del arranque: con la carga diferida, lo que venció mientras tanto se avisa con retraso
+     */
+    private void cargar(long listo) {
+        long ahora = System.currentTimeMillis();
+        synchronized (this) {
+            rueda = new RuedaTemporizadores<>(resolucion, RANURAS, ahora);
+            // 🔹 Si se marcan, también las que vencieron en la última ventana mientras la aplicación estaba parada
+            horizonte = fecha(marcarVencidas ? listo - ventana : listo);
+        }
+        try {
+            extenderVentana(ahora);
+            log.info("Recordatorios: {} tareas con vencimiento hasta {}", getProgramadas(), fecha(ahora + ventana));
+        } finally {
+            hilo.scheduleAtFixedRate(this::avanzar, resolucion, resolucion, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void actualizar(EventoTarea evento) {
+        if (!habilitado) {
+            return;
+        }
+        synchronized (this) {
+            if (rueda == null) {
+                return;
+            }
+            switch (evento.tipo()) {
+                case CREADA, ACTUALIZADA -> {
+                    TareaDTO tarea = evento.tarea();
+                    if (EstadoTarea.ABIERTOS.contains(tarea.estado().nombre())) {
+                        programar(new VencimientoTarea(tarea.id(), evento.usuarioId(), tarea.fechaVencimiento(),
+                                tarea.version()), System.currentTimeMillis());
+                    } else {
+                        programadas.remove(tarea.id());
+                    }
+                }
+                case ELIMINADA -> programadas.remove(evento.id());
+                default -> {
+                    // Los propios avisos
+                }
+            }
+        }
+    }
+
+    public synchronized int getProgramadas() {
+        return programadas.size();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        hilo.shutdownNow();
+    }
+
+    private void avanzar() {
+        try {
+            long ahora = System.currentTimeMillis();
+            boolean extender;
+            synchronized (this) {
+                extender = horizonte.isBefore(fecha(ahora + ventana / 2));
+            }
+            // Solo este hilo extiende la ventana (y cargar, antes de programarlo)
+            if (extender) {
+                extenderVentana(ahora);
+            }
+
+            List<Disparo> disparos = new ArrayList<>();
+            synchronized (this) {
+                rueda.avanzar(System.currentTimeMillis(), aviso -> {
+                    Programacion programacion = aviso.programacion();
+                    Long id = programacion.vencimiento.id();
+                    if (programadas.get(id) == programacion) {
+                        disparos.add(new Disparo(programacion.vencimiento, aviso.tipo()));
+                        if (aviso.tipo() == TipoEvento.VENCIDA) {
+                            programadas.remove(id);
+                        }
+                    }
+                });
+            }
+            // 🔹 La base de datos se consulta fuera del cerrojo, solo cuando algún aviso toca
+            if (!disparos.isEmpty()) {
+                atender(disparos);
+            }
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría la ejecución periódica
+            log.error("Error al procesar recordatorios", e);
+        }
+    }
+
+    /**
+     * Consulta sin el cerrojo los vencimientos entre el horizonte y {@code ahora + ventana} y los
+     * incorpora a la rueda con el cerrojo tomado. Los eventos que llegan durante la consulta se
+     * programan ya contra el nuevo horizonte; si la consulta leyó una versión anterior,
+     * {@link #programar} la descarta, y lo que se eliminó o cerró entre medias lo filtra
+     * {@link #atender} al confirmar.
+     */
+    private void extenderVentana(long ahora) {
+        LocalDateTime desde;
+        LocalDateTime hasta = fecha(ahora + ventana);
+        synchronized (this) {
+            desde = horizonte;
+            extendiendoHasta = hasta;
+        }
+        List<Long> abiertos = EstadoTarea.ABIERTOS.stream()
+                .flatMap(nombre -> catalogoEstados.porNombre(nombre).stream())
+                .map(EstadoTarea::getId)
+                .toList();
+        List<VencimientoTarea> vencimientos;
+        try {
+            // 🔹 Desde la principal: una tarea que aún no llegó a la réplica quedaría fuera de la ventana
+            vencimientos = RutaDataSource.enPrimaria(() -> tareaRepository.buscarVencimientos(desde, hasta, abiertos));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                extendiendoHasta = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            horizonte = hasta;
+            extendiendoHasta = null;
+            long incorporacion = System.currentTimeMillis();
+            vencimientos.forEach(vencimiento -> programar(vencimiento, incorporacion));
+        }
+    }
+
+    private void programar(VencimientoTarea vencimiento, long ahora) {
+        Programacion actual = programadas.get(vencimiento.id());
+        if (actual != null && esAnterior(vencimiento, actual.vencimiento)) {
+            return;
+        }
+        if (vencimiento.fechaVencimiento().isAfter(extendiendoHasta != null ? extendiendoHasta : horizonte)) {
+            // Fuera de la ventana: se cargará al extenderla
+            programadas.remove(vencimiento.id());
+            return;
+        }
+        if (actual != null && mismoInstante(actual.vencimiento.fechaVencimiento(), vencimiento.fechaVencimiento())) {
+            // Misma fecha: los avisos ya programados siguen valiendo
+            actual.vencimiento = vencimiento;
+            return;
+        }
+
+        Programacion programacion = new Programacion(vencimiento);
+        programadas.put(vencimiento.id(), programacion);
+        long vence = milis(vencimiento.fechaVencimiento());
+        if (vence > ahora) {
+            rueda.programar(vence - antelacion, new Aviso(programacion, TipoEvento.POR_VENCER));
+        }
+        rueda.programar(vence, new Aviso(programacion, TipoEvento.VENCIDA));
+    }
+
+    /**
+     * Confirma con una sola consulta que cada tarea sigue existiendo, abierta y con la misma fecha;
+     * los eventos pueden llegar con retraso respecto de lo que hay en la tabla.
+     */
+    private void atender(List<Disparo> disparos) {
+        List<Long> ids = disparos.stream().map(disparo -> disparo.vencimiento().id()).distinct().toList();
+        Map<Long, TareaDTO> actuales = RutaDataSource.enPrimaria(() -> tareaRepository.findDtosByIdIn(ids))
+                .stream()
+                .collect(Collectors.toMap(TareaDTO::id, Function.identity()));
+
+        for (Disparo disparo : disparos) {
+            VencimientoTarea vencimiento = disparo.vencimiento();
+            TareaDTO tarea = actuales.get(vencimiento.id());
+            if (tarea == null || !EstadoTarea.ABIERTOS.contains(tarea.estado().nombre())
+                    || !mismoInstante(tarea.fechaVencimiento(), vencimiento.fechaVencimiento())) {
+                continue;
+            }
+            if (disparo.tipo() == TipoEvento.VENCIDA && marcarVencidas) {
+                tarea = tareaService.marcarVencida(vencimiento.usuarioId(), vencimiento.id()).orElse(null);
+                if (tarea == null) {
+                    continue;
+                }
+            }
+            eventos.publishEvent(new EventoTarea(vencimiento.usuarioId(), disparo.tipo(), vencimiento.id(), tarea));
+        }
+    }
+
+    private static boolean esAnterior(VencimientoTarea nuevo, VencimientoTarea actual) {
+        return nuevo.version() != null && actual.version() != null && nuevo.version() < actual.version();
+    }
+
+    /**
+     * La base de datos puede redondear los nanosegundos que trae el valor en memoria.
+     */
+    private static boolean mismoInstante(LocalDateTime a, LocalDateTime b) {
+        return Duration.between(a, b).abs().toMillis() < 1;
+    }
+
+    private static long milis(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime fecha(long milis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(milis), ZoneId.systemDefault());
+    }
+}
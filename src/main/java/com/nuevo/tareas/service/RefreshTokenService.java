@@ -0,0 +1,108 @@
+package com.nuevo.tareas.service;
+
+import com.nuevo.tareas.model.RefreshToken;
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.repository.RefreshTokenRepository;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import com.nuevo.tareas.security.UsuarioAutenticado;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Emite, rota y revoca tokens de refresco. Presentar un token ya rotado se trata como robo:
+ * se revoca toda su familia y el cliente debe volver a autenticarse con contraseña.
+ */
+@Service
+public class RefreshTokenService {
+
+    /**
+     * Resultado de una rotación: el id y el email del dueño, leídos dentro de la transacción para
+     * no devolver la entidad (fuera de ella sería un proxy sin sesión), y el nuevo token en claro.
+     */
+    public record Rotacion(UsuarioAutenticado usuario, String refreshToken) {
+    }
+
+    private static final int BYTES_TOKEN = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final long expiracion;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UsuarioRepository usuarioRepository,
+                               @Value("${jwt.refresh.expiration}") long expiracion) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.expiracion = expiracion;
+    }
+
+    @Transactional
+    public String emitir(Long usuarioId) {
+        return guardarNuevo(usuarioId, UUID.randomUUID().toString());
+    }
+
+    @Transactional
+    public Optional<Rotacion> rotar(String token) {
+        Optional<RefreshToken> actualOpt = refreshTokenRepository.findByHash(hash(token));
+        if (actualOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RefreshToken actual = actualOpt.get();
+        if (actual.isRevocado() || refreshTokenRepository.revocarSiVigente(actual.getId()) == 0) {
+            refreshTokenRepository.revocarFamilia(actual.getFamilia());
+            return Optional.empty();
+        }
+        if (actual.getExpiraEn().isBefore(Instant.now())) {
+            return Optional.empty();
+        }
+
+        Usuario usuario = actual.getUsuario();
+        String nuevo = guardarNuevo(usuario.getId(), actual.getFamilia());
+        return Optional.of(new Rotacion(new UsuarioAutenticado(usuario.getId(), usuario.getEmail()), nuevo));
+    }
+
+    @Transactional
+    public void revocar(String token) {
+        refreshTokenRepository.findByHash(hash(token))
+                .ifPresent(actual -> refreshTokenRepository.revocarFamilia(actual.getFamilia()));
+    }
+
+    private String guardarNuevo(Long usuarioId, String familia) {
+        byte[] bytes = new byte[BYTES_TOKEN];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .hash(hash(token))
+                .familia(familia)
+                .usuario(usuarioRepository.getReferenceById(usuarioId))
+                .expiraEn(Instant.now().plusMillis(expiracion))
+                .revocado(false)
+                .build());
+        return token;
+    }
+
+    /**
+     * Los tokens son aleatorios de 256 bits, así que basta un SHA-256 sin sal para almacenarlos.
+     */
+    private static String hash(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.nuevo.tareas.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.TreeSet;
+
+/**
+ * Reparte números de cambio crecientes para tareas y tombstones y sabe hasta cuál es seguro
+ * leer. Un número se asigna al escribir pero solo es visible al confirmar la transacción, así
+ * que un cliente que avanzara su cursor hasta el mayor número visible podría saltarse uno
+ * menor que todavía no se había confirmado. {@link #limiteSeguro()} devuelve el número
+ * anterior al más antiguo aún en curso, y GET /tareas/changes nunca lee más allá.
+ * <p>
+ * El contador vive en memoria y arranca desde el máximo guardado, por lo que supone una
+ * sola instancia de la aplicación escribiendo en la base de datos.
+ */
+@Component
+public class RelojCambios {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TreeSet<Long> enCurso = new TreeSet<>();
+    private long ultimo = -1;
+
+    public RelojCambios(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Debe llamarse dentro de una transacción; el número queda en curso hasta que termina.
+     */
+    public long siguiente() {
+        long cambio;
+        synchronized (this) {
+            inicializarSiHaceFalta();
+            cambio = ++ultimo;
+            enCurso.add(cambio);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    liberar(cambio);
+                }
+            });
+        } else {
+            liberar(cambio);
+        }
+        return cambio;
+    }
+
+    /**
+     * @return el mayor número de cambio tal que todos los anteriores ya se confirmaron o descartaron
+     */
+    public synchronized long limiteSeguro() {
+        inicializarSiHaceFalta();
+        return enCurso.isEmpty() ? ultimo : enCurso.first() - 1;
+    }
+
+    private synchronized void liberar(long cambio) {
+        enCurso.remove(cambio);
+    }
+
+    /**
+     * Se consulta al primer uso y no al construir el bean, porque este componente se necesita
+     * mientras Hibernate todavía está arrancando.
+     */
+    private void inicializarSiHaceFalta() {
+        if (ultimo < 0) {
+            Long maximo = jdbcTemplate.queryForObject(
+                    "select greatest(coalesce((select max(cambio) from tareas), 0), "
+                            + "coalesce((select max(cambio) from tareas_eliminadas), 0))", Long.class);
+            ultimo = maximo != null ? maximo : 0;
+        }
+    }
+}
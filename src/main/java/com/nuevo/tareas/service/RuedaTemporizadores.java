@@ -0,0 +1,104 @@
+package com.nuevo.tareas.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporizadores jerárquica (como la de Kafka o la de Netty). El primer nivel tiene
+ * {@code tamano} ranuras de {@code tick} milisegundos; cada nivel superior se crea al necesitarse
+ * y sus ranuras abarcan una vuelta completa del inferior. Programar y avanzar cuesta O(1) por
+ * elemento sin importar cuántos haya, y un elemento baja de nivel a lo sumo una vez por nivel.
+ * <p>
+ * No es segura para varios hilos: quien la use debe sincronizar.
+ */
+final class RuedaTemporizadores<T> {
+
+    private final long tick;
+    private final int tamano;
+    private final long intervalo;
+    private final List<Programado<T>>[] ranuras;
+    private RuedaTemporizadores<T> superior;
+
+    /**
+     * Inicio de la ranura actual, múltiplo de {@code tick}.
+     */
+    private long actual;
+
+    private record Programado<T>(long vence, T elemento) {
+    }
+
+    RuedaTemporizadores(long tick, int tamano, long ahora) {
+        if (tick <= 0 || tamano <= 1) {
+            throw new IllegalArgumentException("tick y tamano deben ser positivos");
+        }
+        this.tick = tick;
+        this.tamano = tamano;
+        this.intervalo = Math.multiplyExact(tick, tamano);
+        this.actual = ahora - Math.floorMod(ahora, tick);
+        @SuppressWarnings("unchecked")
+        List<Programado<T>>[] vacias = new List[tamano];
+        this.ranuras = vacias;
+    }
+
+    /**
+     * Un {@code vence} anterior a la ranura actual se entrega en el próximo avance.
+     */
+    void programar(long vence, T elemento) {
+        agregar(new Programado<>(Math.max(vence, actual), elemento));
+    }
+
+    /**
+     * Avanza hasta {@code ahora} entregando, en orden de ranura, los elementos cuyo vencimiento quedó atrás.
+     * Un elemento nunca se entrega antes de su vencimiento y como mucho un {@code tick} después.
+     */
+    void avanzar(long ahora, Consumer<T> vencido) {
+        while (actual + tick <= ahora) {
+            int indice = indice(actual);
+            List<Programado<T>> ranura = ranuras[indice];
+            ranuras[indice] = null;
+            actual += tick;
+            if (ranura != null) {
+                ranura.forEach(programado -> vencido.accept(programado.elemento()));
+            }
+            if (superior != null && actual % superior.tick == 0) {
+                superior.bajar(actual, this);
+            }
+        }
+    }
+
+    private void agregar(Programado<T> programado) {
+        if (programado.vence() < actual + intervalo) {
+            int indice = indice(programado.vence());
+            if (ranuras[indice] == null) {
+                ranuras[indice] = new ArrayList<>();
+            }
+            ranuras[indice].add(programado);
+        } else {
+            if (superior == null) {
+                superior = new RuedaTemporizadores<>(intervalo, tamano, actual);
+            }
+            superior.agregar(programado);
+        }
+    }
+
+    /**
+     * El nivel inferior empezó una vuelta en {@code inicio}: la ranura que la abarca se reparte en él.
+     */
+    private void bajar(long inicio, RuedaTemporizadores<T> inferior) {
+        actual = inicio;
+        if (superior != null && inicio % superior.tick == 0) {
+            superior.bajar(inicio, this);
+        }
+        int indice = indice(inicio);
+        List<Programado<T>> ranura = ranuras[indice];
+        ranuras[indice] = null;
+        if (ranura != null) {
+            ranura.forEach(inferior::agregar);
+        }
+    }
+
+    private int indice(long instante) {
+        return (int) Math.floorMod(Math.floorDiv(instante, tick), (long) tamano);
+    }
+}
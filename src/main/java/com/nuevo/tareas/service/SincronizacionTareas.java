@@ -0,0 +1,80 @@
+package com.nuevo.tareas.service;
+
+import com.nuevo.tareas.config.RutaDataSource;
+import com.nuevo.tareas.dto.CambiosTareas;
+import com.nuevo.tareas.dto.EliminacionTarea;
+import com.nuevo.tareas.dto.TareaCambiada;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.repository.TareaEliminadaRepository;
+import com.nuevo.tareas.repository.TareaRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sincronización incremental: devuelve lo escrito y borrado desde un número de cambio, usando
+ * el índice (usuario, cambio) de tareas y de tombstones, así que el coste depende de cuánto
+ * cambió y no de cuántas tareas tiene el usuario.
+ */
+@Service
+public class SincronizacionTareas {
+
+    private final TareaRepository tareaRepository;
+    private final TareaEliminadaRepository tareaEliminadaRepository;
+    private final RelojCambios relojCambios;
+
+    public SincronizacionTareas(TareaRepository tareaRepository, TareaEliminadaRepository tareaEliminadaRepository,
+                                RelojCambios relojCambios) {
+        this.tareaRepository = tareaRepository;
+        this.tareaEliminadaRepository = tareaEliminadaRepository;
+        this.relojCambios = relojCambios;
+    }
+
+    /**
+     * Lee siempre de la base de datos principal: el límite seguro sale de lo ya confirmado allí,
+     * y una réplica retrasada haría que el cursor se saltara cambios.
+     */
+    @Transactional(readOnly = true)
+    public CambiosTareas cambiosDesde(Long usuarioId, long desde, int limite) {
+        return RutaDataSource.enPrimaria(() -> leerCambios(usuarioId, desde, limite));
+    }
+
+    private CambiosTareas leerCambios(Long usuarioId, long desde, int limite) {
+        // 🔹 Nunca más allá de lo que ya está confirmado: el cursor no puede saltarse un cambio
+        long hasta = relojCambios.limiteSeguro();
+        if (hasta <= desde) {
+            return new CambiosTareas(List.of(), List.of(), Long.toString(desde), false);
+        }
+
+        // Una fila extra de cada tabla basta para saber si queda algo después de esta página
+        List<TareaCambiada> tareas = tareaRepository.buscarCambios(usuarioId, desde, hasta, Limit.of(limite + 1));
+        List<EliminacionTarea> eliminaciones =
+                tareaEliminadaRepository.buscarCambios(usuarioId, desde, hasta, Limit.of(limite + 1));
+
+        List<TareaDTO> modificadas = new ArrayList<>();
+        List<Long> eliminadas = new ArrayList<>();
+        long ultimo = desde;
+        int t = 0;
+        int e = 0;
+        while (modificadas.size() + eliminadas.size() < limite && (t < tareas.size() || e < eliminaciones.size())) {
+            boolean tomarTarea = e >= eliminaciones.size()
+                    || (t < tareas.size() && tareas.get(t).cambio() < eliminaciones.get(e).cambio());
+            if (tomarTarea) {
+                TareaCambiada cambiada = tareas.get(t++);
+                modificadas.add(cambiada.tarea());
+                ultimo = cambiada.cambio();
+            } else {
+                EliminacionTarea eliminacion = eliminaciones.get(e++);
+                eliminadas.add(eliminacion.tareaId());
+                ultimo = eliminacion.cambio();
+            }
+        }
+
+        boolean hayMas = t < tareas.size() || e < eliminaciones.size();
+        // 🔹 Al terminar, el cursor salta hasta el límite seguro para no volver a recorrer ese tramo
+        return new CambiosTareas(modificadas, eliminadas, Long.toString(hayMas ? ultimo : hasta), hayMas);
+    }
+}
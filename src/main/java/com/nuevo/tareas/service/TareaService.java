@@ -0,0 +1,342 @@
+package com.nuevo.tareas.service;
+
+import com.nuevo.tareas.dto.EventoTarea;
+import com.nuevo.tareas.dto.OperacionTarea;
+import com.nuevo.tareas.dto.ResultadoOperacion;
+import com.nuevo.tareas.dto.TareaAnterior;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.dto.TipoOperacion;
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.model.Tarea;
+import com.nuevo.tareas.model.TareaEliminada;
+import com.nuevo.tareas.repository.TareaEliminadaRepository;
+import com.nuevo.tareas.repository.TareaRepository;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Escrituras sobre tareas, compartidas por los endpoints individuales y por el de lotes.
+ * Cada cambio publica un {@link EventoTarea} que {@link BusEventosTareas} reparte tras el commit.
+ */
+@Service
+public class TareaService {
+
+    private final TareaRepository tareaRepository;
+    private final TareaEliminadaRepository tareaEliminadaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final CatalogoEstados catalogoEstados;
+    private final VersionesColeccion versionesColeccion;
+    private final RelojCambios relojCambios;
+    private final ContadoresTareas contadores;
+    private final ApplicationEventPublisher eventos;
+
+    public TareaService(TareaRepository tareaRepository, TareaEliminadaRepository tareaEliminadaRepository,
+                        UsuarioRepository usuarioRepository, CatalogoEstados catalogoEstados,
+                        VersionesColeccion versionesColeccion, RelojCambios relojCambios,
+                        ContadoresTareas contadores, ApplicationEventPublisher eventos) {
+        this.tareaRepository = tareaRepository;
+        this.tareaEliminadaRepository = tareaEliminadaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.catalogoEstados = catalogoEstados;
+        this.versionesColeccion = versionesColeccion;
+        this.relojCambios = relojCambios;
+        this.contadores = contadores;
+        this.eventos = eventos;
+    }
+
+    @Transactional
+    public TareaDTO crear(Long usuarioId, Tarea datos) {
+        TareaDTO creada = aDto(tareaRepository.save(nuevaTarea(usuarioId, datos)));
+        versionesColeccion.incrementarTrasCommit(usuarioId);
+        eventos.publishEvent(EventoTarea.creada(usuarioId, creada));
+        return creada;
+    }
+
+    /**
+     * Un UPDATE filtrado por id, usuario y (con If-Match) versión, precedido de la lectura con
+     * bloqueo de los valores previos; no carga la entidad. La respuesta se arma con esos valores.
+     *
+     * @param versionesAceptadas versiones de If-Match con las que se permite actualizar; {@code null} para no exigir ninguna
+     * @return la tarea actualizada, o vacío si no existe o pertenece a otro usuario (ver {@link #existe})
+     * @throws ObjectOptimisticLockingFailureException si la versión actual no es una de las aceptadas
+     */
+    @Transactional
+    public Optional<TareaDTO> actualizar(Long usuarioId, Long id, Tarea datos, Set<Long> versionesAceptadas) {
+        Optional<TareaAnterior> anteriorOpt = tareaRepository.actualizarPropia(usuarioId, id, datos,
+                versionesAceptadas, relojCambios.siguiente());
+        if (anteriorOpt.isEmpty()) {
+            // 🔹 Solo en el camino de error: distinguir "no es tuya" de "cambió desde tu versión"
+            if (versionesAceptadas != null && tareaRepository.findVersionByIdAndUsuarioId(id, usuarioId).isPresent()) {
+                throw new ObjectOptimisticLockingFailureException(Tarea.class, id);
+            }
+            return Optional.empty();
+        }
+
+        TareaAnterior anterior = anteriorOpt.get();
+        EstadoTarea estado = estadoTrasEditar(anterior.estadoId(), datos.getFechaVencimiento());
+        if (!estado.getId().equals(anterior.estadoId())) {
+            tareaRepository.cambiarEstado(id, estado);
+        }
+        moverContador(usuarioId, anterior.estadoId(), anterior.fechaVencimiento(), estado.getId(),
+                datos.getFechaVencimiento());
+
+        TareaDTO actualizada = new TareaDTO(id, datos.getTitulo(), datos.getDescripcion(), anterior.fechaCreacion(),
+                datos.getFechaVencimiento(), estado.getId(), estado.getNombre(), anterior.version() + 1);
+        versionesColeccion.incrementarTrasCommit(usuarioId);
+        eventos.publishEvent(EventoTarea.actualizada(usuarioId, actualizada));
+        return Optional.of(actualizada);
+    }
+
+    /**
+     * Un DELETE filtrado por id y usuario, precedido de la lectura con bloqueo de lo que necesitan
+     * los contadores, más el INSERT del tombstone.
+     *
+     * @return {@code false} si la tarea no existe o pertenece a otro usuario (ver {@link #existe})
+     */
+    @Transactional
+    public boolean eliminar(Long usuarioId, Long id) {
+        Optional<TareaAnterior> anteriorOpt = tareaRepository.eliminarPropia(usuarioId, id);
+        anteriorOpt.ifPresent(anterior -> {
+            contadores.sumar(usuarioId, anterior.estadoId(), anterior.fechaVencimiento(), -1);
+            registrarEliminacion(usuarioId, id);
+            versionesColeccion.incrementarTrasCommit(usuarioId);
+            eventos.publishEvent(EventoTarea.eliminada(usuarioId, id));
+        });
+        return anteriorOpt.isPresent();
+    }
+
+    /**
+     * Para responder 404 en lugar de 403 cuando una escritura no encontró la tarea del usuario.
+     */
+    @Transactional(readOnly = true)
+    public boolean existe(Long id) {
+        return tareaRepository.existsById(id);
+    }
+
+    /**
+     * Pasa la tarea a Vencida si sigue abierta y su fecha de vencimiento ya pasó.
+     *
+     * @return la tarea actualizada, o vacío si ya no corresponde marcarla
+     */
+    @Transactional
+    public Optional<TareaDTO> marcarVencida(Long usuarioId, Long id) {
+        EstadoTarea vencida = catalogoEstados.porNombre(EstadoTarea.VENCIDA)
+                .orElseThrow(() -> new IllegalStateException("Estado Vencida no cargado"));
+        return tareaRepository.findById(id)
+                .filter(tarea -> tarea.getUsuario().getId().equals(usuarioId))
+                .filter(tarea -> !tarea.getFechaVencimiento().isAfter(LocalDateTime.now()))
+                .filter(tarea -> catalogoEstados.porId(tarea.getEstado().getId())
+                        .map(estado -> EstadoTarea.ABIERTOS.contains(estado.getNombre()))
+                        .orElse(false))
+                .map(tarea -> {
+                    contadores.sumar(usuarioId, tarea.getEstado().getId(), tarea.getFechaVencimiento(), -1);
+                    contadores.sumar(usuarioId, vencida.getId(), tarea.getFechaVencimiento(), 1);
+                    tarea.setEstado(vencida);
+                    TareaDTO marcada = aDto(tareaRepository.saveAndFlush(tarea));
+                    versionesColeccion.incrementarTrasCommit(usuarioId);
+                    eventos.publishEvent(EventoTarea.actualizada(usuarioId, marcada));
+                    return marcada;
+                });
+    }
+
+    /**
+     * Aplica las operaciones en orden dentro de una sola transacción. Los errores de validación
+     * o de propiedad se informan por elemento sin abortar el lote; las tareas a modificar se
+     * cargan con una sola consulta y las escrituras se envían en lotes JDBC al hacer flush.
+     * Una actualización que trae {@code version} solo se aplica si coincide con la actual (412 si no).
+     */
+    @Transactional
+    public List<ResultadoOperacion> aplicarLote(Long usuarioId, List<OperacionTarea> operaciones) {
+        List<Long> ids = operaciones.stream()
+                .filter(op -> op != null && op.operacion() != TipoOperacion.CREAR)
+                .map(OperacionTarea::id)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        // 🔹 Un lote solo de altas no necesita cargar nada
+        Map<Long, Tarea> propias = ids.isEmpty() ? new HashMap<>()
+                : tareaRepository.findByIdInAndUsuarioId(ids, usuarioId).stream()
+                        .collect(Collectors.toMap(Tarea::getId, Function.identity()));
+        // 🔹 Solo si faltan tareas: las que existen son de otro usuario (403), el resto no existe (404)
+        List<Long> faltantes = ids.stream().filter(id -> !propias.containsKey(id)).toList();
+        Set<Long> ajenas = faltantes.isEmpty() ? Set.of() : Set.copyOf(tareaRepository.findIdsByIdIn(faltantes));
+
+        List<ResultadoOperacion> resultados = new ArrayList<>(operaciones.size());
+        Tarea[] escritas = new Tarea[operaciones.size()];
+        for (int i = 0; i < operaciones.size(); i++) {
+            resultados.add(aplicar(i, operaciones.get(i), usuarioId, propias, ajenas, escritas));
+        }
+
+        tareaRepository.flush();
+        versionesColeccion.incrementarTrasCommit(usuarioId);
+
+        // 🔹 Los DTO se arman después del flush para que lleven la versión definitiva
+        for (int i = 0; i < escritas.length; i++) {
+            if (escritas[i] != null) {
+                TareaDTO dto = aDto(escritas[i]);
+                resultados.set(i, ResultadoOperacion.exito(i, resultados.get(i).estado(), dto));
+                eventos.publishEvent(operaciones.get(i).operacion() == TipoOperacion.CREAR
+                        ? EventoTarea.creada(usuarioId, dto)
+                        : EventoTarea.actualizada(usuarioId, dto));
+            } else if (resultados.get(i).estado() == 204) {
+                eventos.publishEvent(EventoTarea.eliminada(usuarioId, operaciones.get(i).id()));
+            }
+        }
+        return resultados;
+    }
+
+    private ResultadoOperacion aplicar(int indice, OperacionTarea op, Long usuarioId, Map<Long, Tarea> propias,
+                                       Set<Long> ajenas, Tarea[] escritas) {
+        if (op == null || op.operacion() == null) {
+            return ResultadoOperacion.error(indice, 400, "Operación no especificada");
+        }
+
+        switch (op.operacion()) {
+            case CREAR -> {
+                if (!datosCompletos(op.tarea())) {
+                    return ResultadoOperacion.error(indice, 400, "Faltan titulo, descripcion o fechaVencimiento");
+                }
+                escritas[indice] = tareaRepository.save(nuevaTarea(usuarioId, op.tarea()));
+                return ResultadoOperacion.exito(indice, 200, null);
+            }
+            case ACTUALIZAR -> {
+                if (!datosCompletos(op.tarea())) {
+                    return ResultadoOperacion.error(indice, 400, "Faltan titulo, descripcion o fechaVencimiento");
+                }
+                Tarea tarea = propias.get(op.id());
+                if (tarea == null) {
+                    return noEncontrada(indice, op.id(), ajenas);
+                }
+                Long versionEsperada = op.tarea().getVersion();
+                if (versionEsperada != null && !versionEsperada.equals(tarea.getVersion())) {
+                    return ResultadoOperacion.error(indice, 412, "La tarea cambió desde la versión indicada");
+                }
+                modificar(usuarioId, op.tarea(), tarea);
+                escritas[indice] = tarea;
+                return ResultadoOperacion.exito(indice, 200, null);
+            }
+            case ELIMINAR -> {
+                Tarea tarea = propias.remove(op.id());
+                if (tarea == null) {
+                    return noEncontrada(indice, op.id(), ajenas);
+                }
+                borrar(usuarioId, tarea);
+                return ResultadoOperacion.exito(indice, 204, null);
+            }
+            default -> throw new IllegalStateException("Operación no soportada: " + op.operacion());
+        }
+    }
+
+    /**
+     * Como el endpoint individual: 403 si la tarea es de otro usuario y 404 si no existe, también
+     * cuando una operación anterior del mismo lote ya la eliminó.
+     */
+    private static ResultadoOperacion noEncontrada(int indice, Long id, Set<Long> ajenas) {
+        return ajenas.contains(id)
+                ? ResultadoOperacion.error(indice, 403, "La tarea pertenece a otro usuario")
+                : ResultadoOperacion.error(indice, 404, "La tarea no existe");
+    }
+
+    /**
+     * Borra la tarea dejando su tombstone para GET /tareas/changes.
+     */
+    private void borrar(Long usuarioId, Tarea tarea) {
+        contadores.sumar(usuarioId, tarea.getEstado().getId(), tarea.getFechaVencimiento(), -1);
+        tareaRepository.delete(tarea);
+        registrarEliminacion(usuarioId, tarea.getId());
+    }
+
+    private void registrarEliminacion(Long usuarioId, Long tareaId) {
+        tareaEliminadaRepository.save(TareaEliminada.builder()
+                .tareaId(tareaId)
+                .usuario(usuarioRepository.getReferenceById(usuarioId))
+                .fechaEliminacion(LocalDateTime.now())
+                .build());
+    }
+
+    private Tarea nuevaTarea(Long usuarioId, Tarea datos) {
+        EstadoTarea pendiente = catalogoEstados.porNombre(EstadoTarea.PENDIENTE)
+                .orElseThrow(() -> new IllegalStateException("Estado Pendiente no cargado"));
+
+        datos.setId(null);
+        datos.setVersion(null);
+        datos.setCambio(null);
+        // 🔹 Referencia sin SELECT: basta con el id del token para la clave foránea
+        datos.setUsuario(usuarioRepository.getReferenceById(usuarioId));
+        datos.setFechaCreacion(LocalDateTime.now());
+        datos.setEstado(pendiente);
+        contadores.sumar(usuarioId, pendiente.getId(), datos.getFechaVencimiento(), 1);
+        return datos;
+    }
+
+    /**
+     * El nombre del estado sale del catálogo para no inicializar el proxy perezoso.
+     */
+    private TareaDTO aDto(Tarea tarea) {
+        Long estadoId = tarea.getEstado().getId();
+        EstadoTarea estado = catalogoEstados.porId(estadoId)
+                .orElseThrow(() -> new IllegalStateException("Estado desconocido: " + estadoId));
+        return TareaDTO.de(tarea, estado);
+    }
+
+    /**
+     * Copia los datos editables y mueve la tarea de contador si cambió su estado o su día de vencimiento.
+     */
+    private void modificar(Long usuarioId, Tarea datos, Tarea tarea) {
+        Long estadoAnterior = tarea.getEstado().getId();
+        LocalDateTime vencimientoAnterior = tarea.getFechaVencimiento();
+        copiarDatos(datos, tarea);
+        EstadoTarea estado = estadoTrasEditar(estadoAnterior, tarea.getFechaVencimiento());
+        if (!estado.getId().equals(estadoAnterior)) {
+            tarea.setEstado(estado);
+        }
+        moverContador(usuarioId, estadoAnterior, vencimientoAnterior, estado.getId(), tarea.getFechaVencimiento());
+    }
+
+    private void moverContador(Long usuarioId, Long estadoAnterior, LocalDateTime vencimientoAnterior,
+                               Long estadoNuevo, LocalDateTime vencimientoNuevo) {
+        if (!estadoAnterior.equals(estadoNuevo)
+                || !vencimientoAnterior.toLocalDate().equals(vencimientoNuevo.toLocalDate())) {
+            contadores.sumar(usuarioId, estadoAnterior, vencimientoAnterior, -1);
+            contadores.sumar(usuarioId, estadoNuevo, vencimientoNuevo, 1);
+        }
+    }
+
+    /**
+     * Una tarea vencida a la que se le da una fecha futura vuelve a Pendiente; las demás conservan su estado.
+     */
+    private EstadoTarea estadoTrasEditar(Long estadoId, LocalDateTime fechaVencimiento) {
+        EstadoTarea actual = catalogoEstados.porId(estadoId)
+                .orElseThrow(() -> new IllegalStateException("Estado desconocido: " + estadoId));
+        if (EstadoTarea.VENCIDA.equals(actual.getNombre()) && fechaVencimiento.isAfter(LocalDateTime.now())) {
+            return catalogoEstados.porNombre(EstadoTarea.PENDIENTE)
+                    .orElseThrow(() -> new IllegalStateException("Estado Pendiente no cargado"));
+        }
+        return actual;
+    }
+
+    private static void copiarDatos(Tarea origen, Tarea destino) {
+        destino.setTitulo(origen.getTitulo());
+        destino.setDescripcion(origen.getDescripcion());
+        destino.setFechaVencimiento(origen.getFechaVencimiento());
+    }
+
+    private static boolean datosCompletos(Tarea tarea) {
+        return tarea != null && tarea.getTitulo() != null && tarea.getDescripcion() != null
+                && tarea.getFechaVencimiento() != null;
+    }
+}
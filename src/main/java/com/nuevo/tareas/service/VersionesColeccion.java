@@ -0,0 +1,69 @@
+package com.nuevo.tareas.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Versión en memoria de la colección de tareas de cada usuario, usada como ETag de GET /tareas.
+ * Cada escritura de {@link TareaService} la incrementa al confirmarse la transacción; como el
+ * lector toma la versión antes de consultar, en el peor caso devuelve datos nuevos con una
+ * versión vieja y el cliente simplemente vuelve a descargar en la siguiente petición.
+ * <p>
+ * El prefijo aleatorio cambia en cada arranque, de modo que una ETag emitida por un proceso
+ * anterior (cuyas versiones empezaban también en 0) nunca produce un 304 equivocado.
+ * Los cambios hechos fuera de TareaService no se reflejan.
+ * <p>
+ * Cada versión guarda además cuándo se confirmó: con réplica, la lista solo puede leerse de ella
+ * si ya recibió esa escritura, o se serviría una página vieja bajo la ETag nueva.
+ */
+@Component
+public class VersionesColeccion {
+
+    private final String epoca = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final Map<Long, Contador> versiones = new ConcurrentHashMap<>();
+
+    /**
+     * @param etag         ETag de la colección
+     * @param confirmadaEn milisegundos en que se confirmó la última escritura del usuario, o 0 si no
+     *                     hubo ninguna desde el arranque
+     */
+    public record Version(String etag, long confirmadaEn) {
+    }
+
+    private record Contador(long numero, long confirmadaEn) {
+    }
+
+    public Version actual(Long usuarioId) {
+        Contador contador = versiones.getOrDefault(usuarioId, new Contador(0, 0));
+        return new Version("W/\"" + epoca + "-" + usuarioId + "-" + contador.numero() + "\"", contador.confirmadaEn());
+    }
+
+    public String etag(Long usuarioId) {
+        return actual(usuarioId).etag();
+    }
+
+    public void incrementarTrasCommit(Long usuarioId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementar(usuarioId);
+                }
+            });
+        } else {
+            incrementar(usuarioId);
+        }
+    }
+
+    private void incrementar(Long usuarioId) {
+        // 🔹 La hora se toma después del commit: nunca es anterior a la escritura que representa
+        long ahora = System.currentTimeMillis();
+        versiones.merge(usuarioId, new Contador(1, ahora),
+                (anterior, nuevo) -> new Contador(anterior.numero() + 1, Math.max(anterior.confirmadaEn(), ahora)));
+    }
+}
@@ -0,0 +1,83 @@
+-- Esquema para el perfil produccion: Hibernate solo lo valida (ddl-auto: validate).
+-- Generado a partir de las entidades; al cambiar una entidad, actualizar también este archivo (EsquemaTests lo compara).
+
+create sequence tareas_seq start with 1 increment by 50;
+
+create sequence tareas_eliminadas_seq start with 1 increment by 50;
+
+create table usuarios (
+    id bigint generated by default as identity,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    primary key (id)
+);
+
+create table estados_tarea (
+    id bigint generated by default as identity,
+    nombre varchar(255) not null unique,
+    primary key (id)
+);
+
+create table tareas (
+    id bigint not null,
+    titulo varchar(255) not null,
+    descripcion varchar(255) not null,
+    fecha_creacion timestamp(6) not null,
+    fecha_vencimiento timestamp(6) not null,
+    usuario_id bigint,
+    estado_id bigint not null,
+    version bigint,
+    cambio bigint,
+    primary key (id),
+    constraint fk_tareas_usuario foreign key (usuario_id) references usuarios,
+    constraint fk_tareas_estado foreign key (estado_id) references estados_tarea
+);
+
+create index idx_tareas_usuario_vencimiento on tareas (usuario_id, fecha_vencimiento, id);
+
+create index idx_tareas_usuario_cambio on tareas (usuario_id, cambio);
+
+create index idx_tareas_vencimiento_estado on tareas (fecha_vencimiento, estado_id);
+
+create table tareas_eliminadas (
+    id bigint not null,
+    tarea_id bigint not null,
+    usuario_id bigint not null,
+    cambio bigint not null,
+    fecha_eliminacion timestamp(6) not null,
+    primary key (id),
+    constraint fk_tareas_eliminadas_usuario foreign key (usuario_id) references usuarios on delete cascade
+);
+
+create index idx_tareas_eliminadas_usuario_cambio on tareas_eliminadas (usuario_id, cambio);
+
+create table contadores_tareas (
+    id bigint generated by default as identity,
+    usuario_id bigint not null,
+    estado_id bigint not null,
+    dia date not null,
+    cantidad bigint not null,
+    primary key (id),
+    constraint uk_contadores_tareas unique (usuario_id, estado_id, dia),
+    constraint fk_contadores_tareas_usuario foreign key (usuario_id) references usuarios on delete cascade,
+    constraint fk_contadores_tareas_estado foreign key (estado_id) references estados_tarea
+);
+
+create table refresh_tokens (
+    id bigint generated by default as identity,
+    usuario_id bigint not null,
+    hash varchar(64) not null unique,
+    familia varchar(36) not null,
+    expira_en timestamp(6) with time zone not null,
+    revocado boolean not null,
+    primary key (id),
+    constraint fk_refresh_tokens_usuario foreign key (usuario_id) references usuarios on delete cascade
+);
+
+create index idx_refresh_tokens_familia on refresh_tokens (familia);
+
+create table latidos_replica (
+    id bigint not null,
+    marca bigint not null,
+    primary key (id)
+);
@@ -0,0 +1,12 @@
+package com.nuevo.tareas;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Los escenarios y el presupuesto de {@link CargaApiIT} contra la variante reactiva (Netty + R2DBC);
+ * solo se compila con el perfil de Maven {@code reactivo}.
+ * Los resultados quedan en {@code target/carga/reactiva/}, junto a los de {@code target/carga/servlet/}.
+ */
+@ActiveProfiles("reactivo")
+class CargaApiReactivaIT extends CargaApiIT {
+}
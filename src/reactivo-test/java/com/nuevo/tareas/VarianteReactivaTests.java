@@ -0,0 +1,227 @@
+package com.nuevo.tareas;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import com.nuevo.tareas.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.DispatcherHandler;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * La misma API sobre Netty con el perfil reactivo: login por R2DBC, lecturas por R2DBC y
+ * escrituras por TareaService, con las mismas respuestas y ETag que la variante servlet.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactivo")
+class VarianteReactivaTests {
+
+    private static final String CONTRASENA = "reactiva123";
+
+    @Autowired
+    private WebTestClient cliente;
+
+    @Autowired
+    private ApplicationContext contexto;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = usuarioRepository.save(new Usuario(null, "reactiva" + System.nanoTime() + "@nuevo.com",
+                passwordEncoder.encode(CONTRASENA), null));
+    }
+
+    // 🔹 PRUEBA: Con el perfil reactivo atiende WebFlux y no quedan beans de la variante servlet
+    @Test
+    void testPilaReactiva() {
+        assertNotNull(contexto.getBean(DispatcherHandler.class));
+        assertFalse(contexto.containsBean("tareaController"));
+        assertFalse(contexto.containsBean("jwtFilter"));
+    }
+
+    // 🔹 PRUEBA: Login, alta, página con cursor y ETag, lectura condicional, edición con If-Match y borrado
+    @Test
+    void testLoginYCrud() throws Exception {
+        cliente.post().uri("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", usuario.getEmail(), "password", "incorrecta"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        JsonNode login = cliente.post().uri("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", usuario.getEmail(), "password", CONTRASENA))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+        String token = login.get("token").asText();
+        assertTrue(login.hasNonNull("refreshToken"));
+
+        Long primera = crear(token, "Primera", 1);
+        Long segunda = crear(token, "Segunda", 2);
+
+        // Página de una tarea: la segunda se pide con el cursor
+        var pagina = cliente.get().uri("/tareas?limite=1").headers(h -> h.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult();
+        JsonNode cuerpo = pagina.getResponseBody();
+        assertEquals(primera, cuerpo.get("tareas").get(0).get("id").asLong());
+        String etagColeccion = pagina.getResponseHeaders().getETag();
+
+        cliente.get().uri("/tareas?limite=1&cursor=" + cuerpo.get("siguienteCursor").asText())
+                .headers(h -> h.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.tareas[0].id").isEqualTo(segunda.intValue());
+
+        cliente.get().uri("/tareas?limite=1").headers(h -> h.setBearerAuth(token))
+                .header(HttpHeaders.IF_NONE_MATCH, etagColeccion)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        // La misma página en CBOR, negociada por Accept
+        byte[] cbor = cliente.get().uri("/tareas?limite=1").headers(h -> h.setBearerAuth(token))
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+        assertEquals(cuerpo, new CBORMapper().readTree(cbor));
+
+        // Lectura por id y revalidación con su versión
+        String etagTarea = cliente.get().uri("/tareas/" + primera).headers(h -> h.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.estado.nombre").isEqualTo("Pendiente")
+                .returnResult().getResponseHeaders().getETag();
+        cliente.get().uri("/tareas/" + primera).headers(h -> h.setBearerAuth(token))
+                .header(HttpHeaders.IF_NONE_MATCH, etagTarea)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        // La escritura pasa por TareaService: nueva versión y la colección deja de coincidir
+        cliente.put().uri("/tareas/" + primera).headers(h -> h.setBearerAuth(token))
+                .header(HttpHeaders.IF_MATCH, etagTarea)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(cuerpoTarea("Editada", 3))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.titulo").isEqualTo("Editada");
+        cliente.put().uri("/tareas/" + primera).headers(h -> h.setBearerAuth(token))
+                .header(HttpHeaders.IF_MATCH, etagTarea)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(cuerpoTarea("Otra vez", 3))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        cliente.get().uri("/tareas?limite=1").headers(h -> h.setBearerAuth(token))
+                .header(HttpHeaders.IF_NONE_MATCH, etagColeccion)
+                .exchange()
+                .expectStatus().isOk();
+
+        cliente.delete().uri("/tareas/" + segunda).headers(h -> h.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isNoContent();
+        cliente.get().uri("/tareas/" + segunda).headers(h -> h.setBearerAuth(token))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    // 🔹 PRUEBA: Sin sesión abierta en la vista, /auth/refresh rota el token y su reutilización revoca la sesión
+    @Test
+    void testRefreshYReutilizacion() {
+        String primero = cliente.post().uri("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", usuario.getEmail(), "password", CONTRASENA))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody().get("refreshToken").asText();
+
+        JsonNode renovado = refresh(primero, 200);
+        String segundo = renovado.get("refreshToken").asText();
+        assertFalse(segundo.equals(primero));
+        cliente.get().uri("/tareas").headers(h -> h.setBearerAuth(renovado.get("token").asText()))
+                .exchange()
+                .expectStatus().isOk();
+
+        // Reutilizar el token ya rotado invalida también el que se emitió a partir de él
+        refresh(primero, 401);
+        refresh(segundo, 401);
+    }
+
+    // 🔹 PRUEBA: Sin token, con token inválido o sobre tareas ajenas se responde como en la variante servlet
+    @Test
+    void testAccesoDenegado() {
+        cliente.get().uri("/tareas").exchange().expectStatus().isForbidden();
+        cliente.get().uri("/tareas").headers(h -> h.setBearerAuth("no-es-un-jwt"))
+                .exchange()
+                .expectStatus().isForbidden();
+
+        Long ajena = crear(jwtUtil.generateToken(usuario), "Ajena", 1);
+        Usuario otro = usuarioRepository.save(new Usuario(null, "reactiva-otro" + System.nanoTime() + "@nuevo.com",
+                "x", null));
+        String tokenOtro = jwtUtil.generateToken(otro);
+        cliente.get().uri("/tareas/" + ajena).headers(h -> h.setBearerAuth(tokenOtro))
+                .exchange()
+                .expectStatus().isForbidden();
+        cliente.delete().uri("/tareas/" + ajena).headers(h -> h.setBearerAuth(tokenOtro))
+                .exchange()
+                .expectStatus().isForbidden();
+
+        // Un usuario eliminado deja de autenticarse aunque su token siga vigente
+        Usuario borrado = usuarioRepository.save(new Usuario(null, "reactiva-borrado" + System.nanoTime() + "@nuevo.com",
+                "x", null));
+        String tokenBorrado = jwtUtil.generateToken(borrado);
+        usuarioRepository.delete(borrado);
+        cliente.get().uri("/tareas").headers(h -> h.setBearerAuth(tokenBorrado))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    private JsonNode refresh(String refreshToken, int estado) {
+        return cliente.post().uri("/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("refreshToken", refreshToken))
+                .exchange()
+                .expectStatus().isEqualTo(estado)
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+    }
+
+    private Long crear(String token, String titulo, int dias) {
+        JsonNode creada = cliente.post().uri("/tareas").headers(h -> h.setBearerAuth(token))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(cuerpoTarea(titulo, dias))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class).returnResult().getResponseBody();
+        return creada.get("id").asLong();
+    }
+
+    private static Map<String, String> cuerpoTarea(String titulo, int dias) {
+        return Map.of("titulo", titulo, "descripcion", "Variante reactiva",
+                "fechaVencimiento", LocalDateTime.now().plusDays(dias).withNano(0).toString());
+    }
+}
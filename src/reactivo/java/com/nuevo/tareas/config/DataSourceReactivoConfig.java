@@ -0,0 +1,29 @@
+package com.nuevo.tareas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Spring Boot deja de configurar el DataSource cuando existe un ConnectionFactory de R2DBC. La
+ * variante reactiva necesita ambos (R2DBC para leer, JPA para escribir), así que aquí se declara
+ * el mismo pool que crearía Boot a partir de {@code spring.datasource}. Con réplica lo declara
+ * {@link DataSourceConfig}.
+ */
+@Configuration
+@Profile("reactivo")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceReactivoConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tareas.replica.habilitada", havingValue = "false", matchIfMissing = true)
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSource(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.nuevo.tareas.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * CBOR y Smile en la variante reactiva, con los mismos ObjectMapper que {@link JacksonConfig}
+ * registra para la variante servlet.
+ */
+@Configuration
+@Profile("reactivo")
+public class JacksonReactivoConfig {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    // 🔹 Los codecs propios van antes que los predeterminados, así que JSON se registra también
+    // aquí, delante, para seguir siendo la respuesta a Accept: */*
+    @Bean
+    CodecCustomizer codecsBinarios(Jackson2ObjectMapperBuilder builder, ObjectMapper objectMapper) {
+        ObjectMapper cbor = JacksonConfig.cbor(builder);
+        ObjectMapper smile = JacksonConfig.smile(builder);
+        // 🔹 Sin tipos explícitos estos codecs aceptarían cualquier Content-Type, JSON incluido
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new CborEncoder(cbor));
+            configurer.customCodecs().register(new Jackson2SmileEncoder(smile, SMILE));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+            configurer.customCodecs().register(new Jackson2SmileDecoder(smile, SMILE));
+        };
+    }
+
+    /**
+     * Jackson2CborEncoder rechaza {@code encode} aunque la entrada sea un único valor, y WebFlux
+     * escribe siempre por ahí. Un Mono se codifica como valor; un Flux sigue sin poder transmitirse.
+     */
+    private static final class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> valor) {
+                return valor.map(v -> encodeValue(v, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+}
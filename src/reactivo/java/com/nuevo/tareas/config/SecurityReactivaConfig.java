@@ -0,0 +1,53 @@
+package com.nuevo.tareas.config;
+
+import com.nuevo.tareas.repository.UsuarioRepositoryReactivo;
+import com.nuevo.tareas.security.CacheTokensVerificados;
+import com.nuevo.tareas.security.JwtUtil;
+import com.nuevo.tareas.security.JwtWebFilter;
+import com.nuevo.tareas.security.RevalidacionUsuarios;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * Cadena de seguridad de la variante reactiva: las mismas rutas públicas y la misma respuesta
+ * (403) sin token que {@link SecurityConfig}. El límite de peticiones no se aplica en esta variante.
+ */
+@Configuration
+@Profile("reactivo")
+@EnableWebFluxSecurity
+public class SecurityReactivaConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtUtil jwtUtil,
+                                                         RevalidacionUsuarios revalidacionUsuarios,
+                                                         CacheTokensVerificados cacheTokens,
+                                                         UsuarioRepositoryReactivo usuarioRepository,
+                                                         MeterRegistry meterRegistry) {
+        JwtWebFilter jwtWebFilter = new JwtWebFilter(jwtUtil, revalidacionUsuarios, cacheTokens,
+                usuarioRepository, meterRegistry);
+        return http
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            // 🔹 Sin sesión: cada petición se autentica solo con su token
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .exceptionHandling(errores -> errores
+                .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+            .authorizeExchange(auth -> auth
+                .pathMatchers("/auth/login", "/auth/refresh", "/auth/logout").permitAll()
+                .pathMatchers("/actuator/health").permitAll()
+                .anyExchange().authenticated()
+            )
+            .addFilterAt(jwtWebFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+            .build();
+    }
+}
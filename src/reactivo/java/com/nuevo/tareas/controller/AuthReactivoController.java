@@ -0,0 +1,97 @@
+package com.nuevo.tareas.controller;
+
+import com.nuevo.tareas.repository.UsuarioRepositoryReactivo;
+import com.nuevo.tareas.security.JwtUtil;
+import com.nuevo.tareas.security.VerificadorContrasenasReactivo;
+import com.nuevo.tareas.service.RefreshTokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * {@link AuthController} sobre WebFlux (perfil reactivo). El usuario se lee por R2DBC y BCrypt
+ * corre en el pool acotado de {@link VerificadorContrasenasReactivo}; los tokens de refresco siguen
+ * en JPA y se emiten en {@code Schedulers.boundedElastic()}.
+ */
+@RestController
+@Profile("reactivo")
+@RequestMapping("/auth")
+@Tag(name = "Autenticación", description = "API para autenticación de usuarios")
+public class AuthReactivoController {
+
+    private final UsuarioRepositoryReactivo usuarioRepository;
+    private final JwtUtil jwtUtil;
+    private final VerificadorContrasenasReactivo verificadorContrasenas;
+    private final RefreshTokenService refreshTokenService;
+
+    public AuthReactivoController(UsuarioRepositoryReactivo usuarioRepository, JwtUtil jwtUtil,
+                                  VerificadorContrasenasReactivo verificadorContrasenas,
+                                  RefreshTokenService refreshTokenService) {
+        this.usuarioRepository = usuarioRepository;
+        this.jwtUtil = jwtUtil;
+        this.verificadorContrasenas = verificadorContrasenas;
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    @Operation(summary = "Autenticación de usuario", description = "Genera un token JWT de corta duración y un token de refresco para un usuario autenticado.")
+    @PostMapping("/login")
+    public Mono<ResponseEntity<Map<String, String>>> login(@RequestBody Map<String, String> credentials) {
+        String email = credentials.get("email");
+        String password = credentials.get("password");
+        if (email == null || password == null) {
+            return Mono.just(credencialesInvalidas());
+        }
+
+        return usuarioRepository.findByEmail(email)
+                .filterWhen(usuario -> verificadorContrasenas.coincide(password, usuario.getPassword()))
+                .flatMap(usuario -> Mono.fromCallable(() -> refreshTokenService.emitir(usuario.getId()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .map(refreshToken -> ResponseEntity.ok(Map.of(
+                                "token", jwtUtil.generateToken(usuario),
+                                "refreshToken", refreshToken))))
+                .defaultIfEmpty(credencialesInvalidas())
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(ResponseEntity.status(503)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(Map.of("error", "Servicio de autenticación saturado"))));
+    }
+
+    @Operation(summary = "Renovar token", description = "Canjea un token de refresco por un nuevo token JWT y un nuevo token de refresco.")
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<Map<String, String>>> refresh(@RequestBody Map<String, String> cuerpo) {
+        String refreshToken = cuerpo.get("refreshToken");
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return Mono.just(ResponseEntity.status(401).body(Map.of("error", "Token de refresco inválido")));
+        }
+
+        return Mono.fromCallable(() -> refreshTokenService.rotar(refreshToken)
+                        .map(rotacion -> ResponseEntity.ok(Map.of(
+                                "token", jwtUtil.generateToken(rotacion.usuario()),
+                                "refreshToken", rotacion.refreshToken())))
+                        .orElseGet(() -> ResponseEntity.status(401).body(Map.of("error", "Token de refresco inválido"))))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Operation(summary = "Cerrar sesión", description = "Revoca el token de refresco y todos los obtenidos a partir del mismo inicio de sesión.")
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Void>> logout(@RequestBody Map<String, String> cuerpo) {
+        String refreshToken = cuerpo.get("refreshToken");
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return Mono.just(ResponseEntity.noContent().build());
+        }
+        return Mono.fromRunnable(() -> refreshTokenService.revocar(refreshToken))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    private static ResponseEntity<Map<String, String>> credencialesInvalidas() {
+        return ResponseEntity.status(401).body(Map.of("error", "Credenciales inválidas"));
+    }
+}
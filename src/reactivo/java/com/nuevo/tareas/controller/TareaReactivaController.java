@@ -0,0 +1,205 @@
+package com.nuevo.tareas.controller;
+
+import com.nuevo.tareas.dto.CursorTareas;
+import com.nuevo.tareas.dto.FiltroTareas;
+import com.nuevo.tareas.dto.PaginaTareas;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.model.Tarea;
+import com.nuevo.tareas.repository.TareaRepositoryReactivo;
+import com.nuevo.tareas.security.UsuarioAutenticado;
+import com.nuevo.tareas.service.CatalogoEstados;
+import com.nuevo.tareas.service.TareaService;
+import com.nuevo.tareas.service.VersionesColeccion;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link TareaController} sobre WebFlux (perfil reactivo), con las mismas respuestas y ETag.
+ * Las lecturas van por R2DBC; las escrituras reutilizan {@link TareaService} en
+ * {@code Schedulers.boundedElastic()}, porque son JPA y deben seguir actualizando contadores,
+ * números de cambio, eventos y la versión de la colección. El resto de rutas de /tareas
+ * (changes, resumen, search, stream, export, batch) solo existen en la variante servlet.
+ */
+@RestController
+@Profile("reactivo")
+@RequestMapping("/tareas")
+@Tag(name = "Tareas", description = "API para gestionar tareas del usuario autenticado")
+public class TareaReactivaController {
+
+    private final TareaRepositoryReactivo tareaRepository;
+    private final TareaService tareaService;
+    private final CatalogoEstados catalogoEstados;
+    private final VersionesColeccion versionesColeccion;
+    private final int limiteDefecto;
+    private final int limiteMaximo;
+
+    public TareaReactivaController(TareaRepositoryReactivo tareaRepository, TareaService tareaService,
+                                   CatalogoEstados catalogoEstados, VersionesColeccion versionesColeccion,
+                                   @Value("${tareas.paginacion.limite-defecto}") int limiteDefecto,
+                                   @Value("${tareas.paginacion.limite-maximo}") int limiteMaximo) {
+        this.tareaRepository = tareaRepository;
+        this.tareaService = tareaService;
+        this.catalogoEstados = catalogoEstados;
+        this.versionesColeccion = versionesColeccion;
+        this.limiteDefecto = limiteDefecto;
+        this.limiteMaximo = limiteMaximo;
+    }
+
+    @Operation(summary = "Obtener una página de tareas del usuario autenticado")
+    @GetMapping
+    public Mono<ResponseEntity<PaginaTareas>> getTareas(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(defaultValue = "asc") String orden,
+            Authentication autenticacion,
+            ServerWebExchange exchange) {
+        UsuarioAutenticado usuario = usuario(autenticacion);
+        if (!orden.equals("asc") && !orden.equals("desc")) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        CursorTareas posicion;
+        try {
+            posicion = cursor != null ? CursorTareas.decodificar(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        // 🔹 CatalogoEstados está en memoria: no bloquea
+        Long estadoId = null;
+        if (estado != null) {
+            Optional<EstadoTarea> estadoOpt = catalogoEstados.porNombre(estado);
+            if (estadoOpt.isEmpty()) {
+                return Mono.just(ResponseEntity.badRequest().build());
+            }
+            estadoId = estadoOpt.get().getId();
+        }
+
+        // 🔹 La versión se lee antes de consultar; si no cambió, no se toca la base de datos
+        String etag = versionesColeccion.etag(usuario.id());
+        if (exchange.checkNotModified(etag)) {
+            return Mono.empty();
+        }
+
+        int tamano = Math.min(Math.max(limite != null ? limite : limiteDefecto, 1), limiteMaximo);
+        FiltroTareas filtro = new FiltroTareas(usuario.id(), estadoId, desde, hasta,
+                posicion, orden.equals("desc"));
+
+        // 🔹 Se pide una fila extra solo para saber si existe una página siguiente
+        return tareaRepository.buscarPagina(filtro, tamano + 1)
+                .collectList()
+                .map(tareas -> {
+                    String siguienteCursor = null;
+                    if (tareas.size() > tamano) {
+                        tareas = tareas.subList(0, tamano);
+                        TareaDTO ultima = tareas.get(tamano - 1);
+                        siguienteCursor = new CursorTareas(ultima.fechaVencimiento(), ultima.id()).codificar();
+                    }
+                    return ResponseEntity.ok()
+                            .eTag(etag)
+                            .varyBy(HttpHeaders.ACCEPT)
+                            .cacheControl(CacheControl.noCache().cachePrivate())
+                            .body(new PaginaTareas(tareas, siguienteCursor));
+                })
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(500).build()));
+    }
+
+    @Operation(summary = "Obtener una tarea del usuario autenticado")
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<TareaDTO>> getTarea(@PathVariable Long id,
+                                                   Authentication autenticacion,
+                                                   ServerWebExchange exchange) {
+        UsuarioAutenticado usuario = usuario(autenticacion);
+        Mono<ResponseEntity<TareaDTO>> lectura = tareaRepository.findDtoByIdAndUsuarioId(id, usuario.id())
+                .map(TareaReactivaController::conEtag)
+                // 🔹 Solo en el camino de error se distingue inexistente de ajena
+                .switchIfEmpty(Mono.defer(() -> tareaRepository.existsById(id)
+                        .map(existe -> ResponseEntity.status(existe ? 403 : 404).<TareaDTO>build())));
+
+        // 🔹 Revalidación: basta con leer la versión para responder 304
+        if (exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH) != null) {
+            Mono<ResponseEntity<TareaDTO>> completa = lectura;
+            lectura = tareaRepository.findVersionByIdAndUsuarioId(id, usuario.id())
+                    .map(version -> exchange.checkNotModified(EtagsTarea.etag(version)))
+                    .defaultIfEmpty(false)
+                    .flatMap(noModificada -> noModificada ? Mono.empty() : completa);
+        }
+        return lectura.onErrorResume(e -> Mono.just(ResponseEntity.status(500).build()));
+    }
+
+    @Operation(summary = "Crear una nueva tarea")
+    @PostMapping
+    public Mono<ResponseEntity<TareaDTO>> crearTarea(@RequestBody Tarea tarea,
+                                                     Authentication autenticacion) {
+        UsuarioAutenticado usuario = usuario(autenticacion);
+        return bloqueante(() -> tareaService.crear(usuario.id(), tarea))
+                .map(TareaReactivaController::conEtag)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(500).build()));
+    }
+
+    @Operation(summary = "Actualizar una tarea existente",
+            description = "Con If-Match (la ETag de la tarea) solo actualiza si nadie la modificó desde entonces.")
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<TareaDTO>> actualizarTarea(@PathVariable Long id, @RequestBody Tarea tareaActualizada,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                          Authentication autenticacion) {
+        UsuarioAutenticado usuario = usuario(autenticacion);
+        return bloqueante(() -> tareaService.actualizar(usuario.id(), id, tareaActualizada,
+                        EtagsTarea.versionesIfMatch(ifMatch))
+                        .map(TareaReactivaController::conEtag)
+                        .orElseGet(() -> ResponseEntity.status(tareaService.existe(id) ? 403 : 404).build()))
+                .onErrorResume(ObjectOptimisticLockingFailureException.class,
+                        e -> Mono.just(ResponseEntity.status(412).build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(500).build()));
+    }
+
+    @Operation(summary = "Eliminar una tarea")
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> eliminarTarea(@PathVariable Long id,
+                                                    Authentication autenticacion) {
+        UsuarioAutenticado usuario = usuario(autenticacion);
+        return bloqueante(() -> tareaService.eliminar(usuario.id(), id)
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.status(tareaService.existe(id) ? 403 : 404).<Void>build())
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(500).build()));
+    }
+
+    /**
+     * UsuarioAutenticado es un Principal, y en WebFlux un parámetro de ese tipo se resuelve con la
+     * Authentication entera antes que con @AuthenticationPrincipal; por eso se recibe esta última.
+     */
+    private static UsuarioAutenticado usuario(Authentication autenticacion) {
+        return (UsuarioAutenticado) autenticacion.getPrincipal();
+    }
+
+    /**
+     * Ejecuta una llamada JPA fuera del event loop.
+     */
+    private static <T> Mono<T> bloqueante(Callable<T> llamada) {
+        return Mono.fromCallable(llamada).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static ResponseEntity<TareaDTO> conEtag(TareaDTO tarea) {
+        return ResponseEntity.ok().eTag(EtagsTarea.etag(tarea.version())).varyBy(HttpHeaders.ACCEPT).body(tarea);
+    }
+}
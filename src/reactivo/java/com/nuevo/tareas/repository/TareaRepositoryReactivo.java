@@ -0,0 +1,108 @@
+package com.nuevo.tareas.repository;
+
+import com.nuevo.tareas.dto.CursorTareas;
+import com.nuevo.tareas.dto.FiltroTareas;
+import com.nuevo.tareas.dto.TareaDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lecturas de {@link TareaRepository} que usa la variante reactiva, sobre R2DBC y la misma base.
+ * Devuelven las mismas proyecciones a {@link TareaDTO}; las escrituras siguen yendo por JPA.
+ */
+@Repository
+@Profile("reactivo")
+public class TareaRepositoryReactivo {
+
+    private static final String SELECT_DTO = "select t.id, t.titulo, t.descripcion, t.fecha_creacion, "
+            + "t.fecha_vencimiento, e.id as estado_id, e.nombre as estado_nombre, t.version "
+            + "from tareas t join estados_tarea e on e.id = t.estado_id ";
+
+    private final DatabaseClient databaseClient;
+
+    public TareaRepositoryReactivo(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Mismo criterio que {@link TareaRepositoryImpl#buscarPagina}: filtros opcionales y keyset
+     * sobre (fechaVencimiento, id).
+     */
+    public Flux<TareaDTO> buscarPagina(FiltroTareas filtro, int limite) {
+        StringBuilder sql = new StringBuilder(SELECT_DTO).append("where t.usuario_id = :usuarioId");
+        if (filtro.estadoId() != null) {
+            sql.append(" and t.estado_id = :estadoId");
+        }
+        if (filtro.desde() != null) {
+            sql.append(" and t.fecha_vencimiento >= :desde");
+        }
+        if (filtro.hasta() != null) {
+            sql.append(" and t.fecha_vencimiento <= :hasta");
+        }
+
+        // 🔹 Keyset: continuar estrictamente después de la última fila entregada, sin OFFSET
+        CursorTareas cursor = filtro.cursor();
+        String comparacion = filtro.descendente() ? "<" : ">";
+        if (cursor != null) {
+            sql.append(" and (t.fecha_vencimiento ").append(comparacion).append(" :cursorFecha")
+                    .append(" or (t.fecha_vencimiento = :cursorFecha and t.id ").append(comparacion)
+                    .append(" :cursorId))");
+        }
+        String sentido = filtro.descendente() ? " desc" : " asc";
+        sql.append(" order by t.fecha_vencimiento").append(sentido).append(", t.id").append(sentido)
+                .append(" limit :limite");
+
+        DatabaseClient.GenericExecuteSpec consulta = databaseClient.sql(sql.toString())
+                .bind("usuarioId", filtro.usuarioId())
+                .bind("limite", limite);
+        if (filtro.estadoId() != null) {
+            consulta = consulta.bind("estadoId", filtro.estadoId());
+        }
+        if (filtro.desde() != null) {
+            consulta = consulta.bind("desde", filtro.desde());
+        }
+        if (filtro.hasta() != null) {
+            consulta = consulta.bind("hasta", filtro.hasta());
+        }
+        if (cursor != null) {
+            consulta = consulta.bind("cursorFecha", cursor.fechaVencimiento()).bind("cursorId", cursor.id());
+        }
+        return consulta.map(TareaRepositoryReactivo::aDto).all();
+    }
+
+    public Mono<TareaDTO> findDtoByIdAndUsuarioId(Long id, Long usuarioId) {
+        return databaseClient.sql(SELECT_DTO + "where t.id = :id and t.usuario_id = :usuarioId")
+                .bind("id", id)
+                .bind("usuarioId", usuarioId)
+                .map(TareaRepositoryReactivo::aDto)
+                .one();
+    }
+
+    public Mono<Long> findVersionByIdAndUsuarioId(Long id, Long usuarioId) {
+        return databaseClient.sql("select version from tareas where id = :id and usuario_id = :usuarioId")
+                .bind("id", id)
+                .bind("usuarioId", usuarioId)
+                .map(fila -> fila.get("version", Long.class))
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("select count(*) from tareas where id = :id")
+                .bind("id", id)
+                .map(fila -> fila.get(0, Long.class) > 0)
+                .one();
+    }
+
+    private static TareaDTO aDto(Readable fila) {
+        return new TareaDTO(fila.get("id", Long.class), fila.get("titulo", String.class),
+                fila.get("descripcion", String.class), fila.get("fecha_creacion", LocalDateTime.class),
+                fila.get("fecha_vencimiento", LocalDateTime.class), fila.get("estado_id", Long.class),
+                fila.get("estado_nombre", String.class), fila.get("version", Long.class));
+    }
+}
@@ -0,0 +1,43 @@
+package com.nuevo.tareas.repository;
+
+import com.nuevo.tareas.model.Usuario;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lecturas de {@link UsuarioRepository} que usa la variante reactiva. Va directo a la tabla: la
+ * caché de segundo nivel de Hibernate solo está del lado JPA.
+ */
+@Repository
+@Profile("reactivo")
+public class UsuarioRepositoryReactivo {
+
+    private final DatabaseClient databaseClient;
+
+    public UsuarioRepositoryReactivo(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * El usuario devuelto no está administrado por JPA; sirve para comprobar la contraseña y emitir el token.
+     */
+    public Mono<Usuario> findByEmail(String email) {
+        return databaseClient.sql("select id, email, password from usuarios where email = :email")
+                .bind("email", email)
+                .map(fila -> Usuario.builder()
+                        .id(fila.get("id", Long.class))
+                        .email(fila.get("email", String.class))
+                        .password(fila.get("password", String.class))
+                        .build())
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("select count(*) from usuarios where id = :id")
+                .bind("id", id)
+                .map(fila -> fila.get(0, Long.class) > 0)
+                .one();
+    }
+}
@@ -0,0 +1,141 @@
+package com.nuevo.tareas.security;
+
+import com.nuevo.tareas.repository.UsuarioRepositoryReactivo;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Equivalente reactivo de {@link JwtFilter}: misma caché de tokens, mismas métricas y el mismo
+ * aviso muestreado. La revalidación del usuario consulta por R2DBC, sin bloquear el event loop.
+ * <p>
+ * No es un bean: WebFlux añadiría todo {@link WebFilter} del contexto a la cadena global y se
+ * ejecutaría dos veces. Lo crea {@code SecurityReactivaConfig} dentro de la cadena de seguridad.
+ */
+@Slf4j
+public class JwtWebFilter implements WebFilter {
+
+    private static final String METRICA = "autenticacion.jwt";
+    private static final long INTERVALO_AVISO = TimeUnit.SECONDS.toNanos(10);
+
+    private final JwtUtil jwtUtil;
+    private final RevalidacionUsuarios revalidacionUsuarios;
+    private final CacheTokensVerificados cacheTokens;
+    private final UsuarioRepositoryReactivo usuarioRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter exitos;
+    private final Counter invalidos;
+    private final Counter ausentes;
+    private final Timer verificacion;
+
+    private final AtomicLong proximoAviso = new AtomicLong(System.nanoTime());
+    private final LongAdder invalidosSinAvisar = new LongAdder();
+
+    public JwtWebFilter(JwtUtil jwtUtil, RevalidacionUsuarios revalidacionUsuarios,
+                        CacheTokensVerificados cacheTokens, UsuarioRepositoryReactivo usuarioRepository,
+                        MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.revalidacionUsuarios = revalidacionUsuarios;
+        this.cacheTokens = cacheTokens;
+        this.usuarioRepository = usuarioRepository;
+        this.meterRegistry = meterRegistry;
+
+        this.exitos = Counter.builder(METRICA).tag("resultado", "exito")
+                .description("Peticiones según el resultado de la autenticación JWT").register(meterRegistry);
+        this.invalidos = Counter.builder(METRICA).tag("resultado", "invalido").register(meterRegistry);
+        this.ausentes = Counter.builder(METRICA).tag("resultado", "ausente").register(meterRegistry);
+        this.verificacion = Timer.builder(METRICA + ".verificacion")
+                .description("Tiempo en verificar un token (caché, firma y revalidación de usuario)")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String token = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (token == null || !token.startsWith("Bearer ")) {
+            ausentes.increment();
+            return chain.filter(exchange);
+        }
+
+        String jwt = token.substring(7); // Remover "Bearer "
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        return extraerUsuario(jwt)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .doOnNext(resultado -> muestra.stop(verificacion))
+                .flatMap(resultado -> {
+                    if (resultado.isEmpty()) {
+                        invalidos.increment();
+                        avisarTokenInvalido(exchange.getRequest());
+                        return chain.filter(exchange);
+                    }
+
+                    UsuarioAutenticado usuario = resultado.get();
+                    exitos.increment();
+                    log.debug("Usuario {} autenticado", usuario.id());
+                    return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                            new UsernamePasswordAuthenticationToken(usuario, null, List.of())));
+                });
+    }
+
+    /**
+     * @return el usuario del token, o vacío si el token es inválido o el usuario ya no existe
+     */
+    private Mono<UsuarioAutenticado> extraerUsuario(String token) {
+        UsuarioAutenticado usuario = cacheTokens.obtener(token);
+        if (usuario == null) {
+            try {
+                // 🔹 Un único parseo verifica firma y expiración y entrega los claims
+                Claims claims = jwtUtil.parseClaims(token);
+                usuario = jwtUtil.extractUsuario(claims);
+                if (claims.getExpiration() != null) {
+                    cacheTokens.guardar(token, usuario, claims.getExpiration().getTime());
+                }
+            } catch (JwtException e) {
+                return Mono.empty();
+            }
+        }
+
+        UsuarioAutenticado autenticado = usuario;
+        if (revalidacionUsuarios.vigente(autenticado.id())) {
+            return Mono.just(autenticado);
+        }
+        return usuarioRepository.existsById(autenticado.id())
+                .doOnNext(existe -> revalidacionUsuarios.registrar(autenticado.id(), existe))
+                .filter(Boolean::booleanValue)
+                .map(existe -> autenticado);
+    }
+
+    /**
+     * Muestreo: como mucho un aviso cada 10 segundos, igual que {@link JwtFilter}. Nunca se registra el token.
+     */
+    private void avisarTokenInvalido(ServerHttpRequest request) {
+        invalidosSinAvisar.increment();
+        long ahora = System.nanoTime();
+        long proximo = proximoAviso.get();
+        if (ahora - proximo >= 0 && proximoAviso.compareAndSet(proximo, ahora + INTERVALO_AVISO)) {
+            log.warn("Tokens inválidos o expirados rechazados: {} (último desde {} en {} {})",
+                    invalidosSinAvisar.sumThenReset(), request.getRemoteAddress(),
+                    request.getMethod(), request.getPath().value());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.nuevo.tareas.security;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Variante no bloqueante de {@link VerificadorContrasenas}: mismo pool y misma cola, de modo que
+ * BCrypt nunca ocupa un hilo del event loop. Con el pool saturado o fuera de plazo la señal de
+ * error es una {@link RejectedExecutionException}.
+ */
+@Component
+@Profile("reactivo")
+public class VerificadorContrasenasReactivo {
+
+    private final VerificadorContrasenas verificador;
+    private final Scheduler planificador;
+
+    public VerificadorContrasenasReactivo(VerificadorContrasenas verificador) {
+        this.verificador = verificador;
+        this.planificador = Schedulers.fromExecutorService(verificador.getExecutor(), "bcrypt");
+    }
+
+    public Mono<Boolean> coincide(String contrasena, String hash) {
+        return Mono.fromCallable(() -> verificador.getPasswordEncoder().matches(contrasena, hash))
+                .subscribeOn(planificador)
+                .timeout(Duration.ofMillis(verificador.getEsperaMaxima()), Mono.error(() ->
+                        new RejectedExecutionException("Verificación de contraseña fuera de plazo")));
+    }
+}
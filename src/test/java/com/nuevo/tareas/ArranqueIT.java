@@ -0,0 +1,150 @@
+package com.nuevo.tareas;
+
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tiempo de arranque en frío: lanza el jar empaquetado en una JVM nueva y mide desde el lanzamiento
+ * hasta la primera respuesta 200 de GET /tareas. Falla si supera {@code arranque/presupuesto.properties}.
+ * <p>
+ * Se ejecuta con {@code mvn verify}, después de empaquetar. Mide el jar con la configuración por
+ * defecto, con el perfil produccion y, con ese perfil, la aplicación extraída con el código AOT y el
+ * archivo CDS que el build genera antes de las pruebas de integración. Cada modo deja su log en
+ * {@code target/arranque/<modo>.log} y los tiempos en {@code target/arranque/<modo>.properties}.
+ * <p>
+ * El token se firma aquí con un secreto propio que se pasa a la aplicación, para no medir BCrypt;
+ * en una base recién creada el usuario admin de DataLoader es el primero y tiene id 1.
+ */
+class ArranqueIT {
+
+    private static final String SECRETO = "secretoDeLaPruebaDeArranque-1234567890";
+    private static final String ADMIN = "admin@nuevo.com";
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(3);
+
+    private static final Path JAR = Path.of(System.getProperty("arranque.jar", "target/gestion-tareas-0.0.1-SNAPSHOT.jar"));
+    private static final Path APLICACION = Path.of(System.getProperty("arranque.aplicacion", "target/aplicacion"));
+
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    // 🔹 PRUEBA: Referencia sin ajustes de arranque (ddl-auto update, inicialización completa, springdoc)
+    @Test
+    void arranquePorDefecto() throws Exception {
+        medir("defecto", JAR, List.of(), List.of());
+    }
+
+    // 🔹 PRUEBA: Perfil produccion sobre el mismo jar: validación del esquema e inicialización diferida
+    @Test
+    void arranqueProduccion() throws Exception {
+        medir("produccion", JAR, List.of(), List.of("--spring.profiles.active=produccion"));
+    }
+
+    // 🔹 PRUEBA: Perfil produccion con el código AOT y el archivo CDS que genera mvn verify
+    @Test
+    void arranqueProduccionAotCds() throws Exception {
+        Path archivo = APLICACION.resolve("aplicacion.jsa");
+        assertTrue(Files.exists(archivo), "No existe " + archivo + ": ArranqueIT se ejecuta con mvn verify");
+        medir("produccion-aot-cds", APLICACION.resolve(JAR.getFileName()),
+                List.of("-XX:SharedArchiveFile=" + archivo, "-Dspring.aot.enabled=true"),
+                List.of("--spring.profiles.active=produccion"));
+    }
+
+    private void medir(String modo, Path jar, List<String> opcionesJvm, List<String> argumentos) throws Exception {
+        assertTrue(Files.exists(jar), "No existe " + jar + ": ArranqueIT se ejecuta con mvn verify, tras empaquetar");
+        Path directorio = Path.of("target", "arranque");
+        Files.createDirectories(directorio);
+
+        int puerto;
+        try (ServerSocket libre = new ServerSocket(0)) {
+            puerto = libre.getLocalPort();
+        }
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(opcionesJvm);
+        comando.addAll(List.of("-jar", jar.toString(), "--server.port=" + puerto, "--jwt.secret=" + SECRETO));
+        comando.addAll(argumentos);
+        String token = new JwtUtil(SECRETO, TimeUnit.MINUTES.toMillis(10))
+                .generateToken(new Usuario(1L, ADMIN, null, null));
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/tareas"))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(directorio.resolve(modo + ".log").toFile())
+                .start();
+        long primeraRespuesta = -1;
+        long primeraTareas = -1;
+        try {
+            long limite = inicio + ESPERA_MAXIMA.toNanos();
+            while (primeraTareas < 0 && System.nanoTime() < limite && proceso.isAlive()) {
+                try {
+                    int estado = cliente.send(peticion, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    long ahora = System.nanoTime();
+                    if (primeraRespuesta < 0) {
+                        primeraRespuesta = ahora - inicio;
+                    }
+                    if (estado == 200) {
+                        primeraTareas = ahora - inicio;
+                    }
+                } catch (IOException e) {
+                    // Aún no escucha en el puerto
+                }
+                if (primeraTareas < 0) {
+                    Thread.sleep(20);
+                }
+            }
+        } finally {
+            proceso.destroy();
+            if (!proceso.waitFor(30, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly();
+            }
+        }
+        assertTrue(primeraTareas > 0, "GET /tareas nunca respondió 200 en modo " + modo
+                + "; ver " + directorio.resolve(modo + ".log"));
+
+        long primeraRespuestaMs = TimeUnit.NANOSECONDS.toMillis(primeraRespuesta);
+        long primeraTareasMs = TimeUnit.NANOSECONDS.toMillis(primeraTareas);
+        System.out.printf("%nArranque (%s): primera respuesta a los %d ms, primer GET /tareas 200 a los %d ms%n",
+                modo, primeraRespuestaMs, primeraTareasMs);
+
+        Properties resumen = new Properties();
+        resumen.setProperty("primera-respuesta.ms", Long.toString(primeraRespuestaMs));
+        resumen.setProperty("primera-peticion.ms", Long.toString(primeraTareasMs));
+        resumen.setProperty("comando", String.join(" ", comando));
+        try (OutputStream salida = Files.newOutputStream(directorio.resolve(modo + ".properties"))) {
+            resumen.store(salida, "ArranqueIT, modo " + modo);
+        }
+
+        Properties presupuesto = new Properties();
+        try (InputStream entrada = getClass().getResourceAsStream("/arranque/presupuesto.properties")) {
+            presupuesto.load(entrada);
+        }
+        String clave = modo + ".primera-peticion";
+        String maximo = System.getProperty("arranque.presupuesto." + clave, presupuesto.getProperty(clave));
+        assertTrue(maximo == null || primeraTareasMs <= Long.parseLong(maximo),
+                "Arranque (" + modo + ") excedido: " + primeraTareasMs + " ms > " + maximo + " ms");
+    }
+}
@@ -0,0 +1,115 @@
+package com.nuevo.tareas;
+
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.repository.EstadoTareaRepository;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CacheSegundoNivelTests {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EstadoTareaRepository estadoTareaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // 🔹 PRUEBA: La segunda búsqueda por email no va a la base de datos
+    @Test
+    void testUsuarioPorEmailDesdeCache() {
+        Usuario usuario = crearUsuario("cache-l2@nuevo.com");
+        usuarioRepository.findByEmail(usuario.getEmail());
+
+        estadisticas.clear();
+        Usuario leido = usuarioRepository.findByEmail(usuario.getEmail()).orElseThrow();
+
+        assertEquals(usuario.getId(), leido.getId());
+        assertTrue(estadisticas.getNaturalIdCacheHitCount() > 0);
+        assertTrue(estadisticas.getSecondLevelCacheHitCount() > 0);
+        assertEquals(0, estadisticas.getNaturalIdQueryExecutionCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+    }
+
+    // 🔹 PRUEBA: Cambiar, borrar y volver a crear un usuario no deja datos viejos en la caché
+    @Test
+    void testEscriturasInvalidanUsuario() {
+        Usuario usuario = crearUsuario("cache-l2-escritura@nuevo.com");
+        usuarioRepository.findByEmail(usuario.getEmail());
+
+        usuario.setPassword("nueva-clave");
+        usuarioRepository.save(usuario);
+        assertEquals("nueva-clave", usuarioRepository.findByEmail(usuario.getEmail()).orElseThrow().getPassword());
+
+        usuarioRepository.delete(usuario);
+        assertFalse(usuarioRepository.findByEmail(usuario.getEmail()).isPresent());
+        assertFalse(usuarioRepository.findById(usuario.getId()).isPresent());
+
+        Usuario otro = usuarioRepository.save(new Usuario(null, usuario.getEmail(), "otra-clave", null));
+        Usuario leido = usuarioRepository.findByEmail(usuario.getEmail()).orElseThrow();
+        assertNotEquals(usuario.getId(), leido.getId());
+        assertEquals(otro.getId(), leido.getId());
+        assertEquals("otra-clave", leido.getPassword());
+    }
+
+    // 🔹 PRUEBA: findByNombre sale de la caché de consultas hasta que se escribe en la tabla de estados
+    @Test
+    void testEstadoPorNombreDesdeCache() {
+        estadoTareaRepository.findByNombre(EstadoTarea.PENDIENTE);
+
+        estadisticas.clear();
+        assertTrue(estadoTareaRepository.findByNombre(EstadoTarea.PENDIENTE).isPresent());
+        assertEquals(1, estadisticas.getQueryCacheHitCount());
+        assertEquals(0, estadisticas.getQueryExecutionCount());
+
+        EstadoTarea temporal = estadoTareaRepository.save(new EstadoTarea(null, "Temporal-cache"));
+        try {
+            estadisticas.clear();
+            assertTrue(estadoTareaRepository.findByNombre("Temporal-cache").isPresent());
+            assertTrue(estadoTareaRepository.findByNombre(EstadoTarea.PENDIENTE).isPresent());
+            assertEquals(0, estadisticas.getQueryCacheHitCount());
+        } finally {
+            estadoTareaRepository.delete(temporal);
+        }
+        assertFalse(estadoTareaRepository.findByNombre("Temporal-cache").isPresent());
+    }
+
+    // 🔹 PRUEBA: Las estadísticas de la caché se publican como métricas
+    @Test
+    void testMetricasCache() {
+        assertNotNull(registry.find("hibernate.second.level.cache.requests").tag("region", "usuarios").functionCounter());
+        assertNotNull(registry.find("hibernate.cache.natural.id.requests").functionCounter());
+        assertNotNull(registry.find("hibernate.cache.query.requests").functionCounter());
+    }
+
+    private Usuario crearUsuario(String email) {
+        usuarioRepository.findByEmail(email).ifPresent(usuarioRepository::delete);
+        return usuarioRepository.save(new Usuario(null, email, "sin-login", null));
+    }
+}
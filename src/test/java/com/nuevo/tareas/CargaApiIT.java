@@ -0,0 +1,383 @@
+package com.nuevo.tareas;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.model.Tarea;
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.repository.TareaRepository;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import com.nuevo.tareas.service.CatalogoEstados;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga sobre el servidor real (puerto aleatorio). Siembra usuarios con tareas, lanza
+ * hilos que mezclan login y CRUD durante un tiempo fijo y registra la latencia de cada endpoint
+ * en histogramas HDR. Falla si algún percentil supera {@code carga/presupuesto.properties}.
+ * <p>
+ * Es de lazo cerrado (cada hilo espera su respuesta antes de enviar la siguiente), así que
+ * bajo saturación los percentiles subestiman la latencia que vería tráfico a ritmo fijo.
+ * <p>
+ * Se ejecuta con {@code mvn verify}; los parámetros se ajustan con propiedades de sistema:
+ * {@code -Dcarga.usuarios=20 -Dcarga.tareas-por-usuario=50 -Dcarga.hilos=8 -Dcarga.duracion=20}
+ * (segundos). Los histogramas completos quedan en {@code target/carga/<pila>/*.hgrm}.
+ * <p>
+ * {@code CargaApiReactivaIT} ({@code -P reactivo}) repite los mismos escenarios con el perfil
+ * reactivo. Cada variante deja en {@code target/carga/<pila>/resumen.properties} el rendimiento
+ * (peticiones por segundo), el pico de heap, los hilos adicionales por conexión concurrente y los
+ * percentiles de cada endpoint, para compararlas en la misma máquina. El pico se muestrea cada
+ * 100 ms e incluye basura aún no recolectada: sirve para comparar variantes, no como consumo
+ * retenido.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "limite-tasa.habilitado=false",
+        "spring.jpa.show-sql=false"
+})
+class CargaApiIT {
+
+    private static final String CONTRASENA = "carga123";
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(1);
+
+    private static final int USUARIOS = Integer.getInteger("carga.usuarios", 20);
+    private static final int TAREAS_POR_USUARIO = Integer.getInteger("carga.tareas-por-usuario", 50);
+    private static final int HILOS = Integer.getInteger("carga.hilos", 8);
+    private static final int CALENTAMIENTO_S = Integer.getInteger("carga.calentamiento", 5);
+    private static final int DURACION_S = Integer.getInteger("carga.duracion", 20);
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TareaRepository tareaRepository;
+
+    @Autowired
+    private CatalogoEstados catalogoEstados;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Environment entorno;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * Un histograma por endpoint, en microsegundos; el orden es el del informe.
+     */
+    private final Map<String, Histogram> histogramas = new LinkedHashMap<>();
+    private final AtomicLong errores = new AtomicLong();
+    private volatile boolean registrando;
+    private final AtomicLong heapMaximo = new AtomicLong();
+    private final AtomicInteger hilosMaximo = new AtomicInteger();
+
+    @Test
+    void cargaMixtaDentroDelPresupuesto() throws Exception {
+        for (String endpoint : List.of("login", "listar", "obtener", "crear", "actualizar", "eliminar")) {
+            histogramas.put(endpoint, new ConcurrentHistogram(LATENCIA_MAXIMA_US, 3));
+        }
+        List<Usuario> usuarios = sembrar();
+
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        Consumo consumo;
+        try {
+            ejecutarFase(executor, usuarios, CALENTAMIENTO_S, false);
+            consumo = medirConsumo(() -> ejecutarFase(executor, usuarios, DURACION_S, true));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        informar(consumo);
+        assertEquals(0, errores.get(), "Hubo respuestas con error durante la carga");
+        verificarPresupuesto();
+    }
+
+    private List<Usuario> sembrar() {
+        // 🔹 Todos comparten contraseña: un solo BCrypt en lugar de uno por usuario
+        String hash = passwordEncoder.encode(CONTRASENA);
+        EstadoTarea pendiente = catalogoEstados.porNombre(EstadoTarea.PENDIENTE).orElseThrow();
+        LocalDateTime ahora = LocalDateTime.now();
+
+        List<Usuario> usuarios = new ArrayList<>();
+        for (int u = 0; u < USUARIOS; u++) {
+            // 🔹 Con la pila en el email, las dos variantes pueden sembrar en la misma base
+            Usuario usuario = usuarioRepository.save(new Usuario(null, "carga-" + pila() + u + "@nuevo.com", hash, null));
+            List<Tarea> tareas = new ArrayList<>(TAREAS_POR_USUARIO);
+            for (int t = 0; t < TAREAS_POR_USUARIO; t++) {
+                tareas.add(new Tarea(null, "Tarea " + t, "Sembrada para la prueba de carga", ahora,
+                        ahora.plusDays(t % 30), usuario, pendiente, null, null));
+            }
+            tareaRepository.saveAll(tareas);
+            usuarios.add(usuario);
+        }
+        return usuarios;
+    }
+
+    private String pila() {
+        return entorno.acceptsProfiles(Profiles.of("reactivo")) ? "reactiva" : "servlet";
+    }
+
+    /**
+     * Memoria y hilos de la JVM (servidor y clientes) durante la fase medida, frente a la línea
+     * base tras un GC. Los clientes son los mismos en ambas variantes, así que la diferencia entre
+     * ellas es la del servidor.
+     */
+    private record Consumo(long heapBase, long heapPico, int hilosBase, int hilosPico) {
+
+        long heapPorConexion() {
+            return Math.max(heapPico - heapBase, 0) / HILOS;
+        }
+
+        double hilosPorConexion() {
+            return Math.max(hilosPico - hilosBase, 0) / (double) HILOS;
+        }
+    }
+
+    private interface Fase {
+        void ejecutar() throws Exception;
+    }
+
+    private Consumo medirConsumo(Fase fase) throws Exception {
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        System.gc();
+        long heapBase = memoria.getHeapMemoryUsage().getUsed();
+        int hilosBase = hilos.getThreadCount();
+        heapMaximo.set(heapBase);
+        hilosMaximo.set(hilosBase);
+
+        ScheduledExecutorService muestreo = Executors.newSingleThreadScheduledExecutor();
+        muestreo.scheduleAtFixedRate(() -> {
+            heapMaximo.accumulateAndGet(memoria.getHeapMemoryUsage().getUsed(), Math::max);
+            hilosMaximo.accumulateAndGet(hilos.getThreadCount(), Math::max);
+        }, 0, 100, TimeUnit.MILLISECONDS);
+        try {
+            fase.ejecutar();
+        } finally {
+            muestreo.shutdownNow();
+        }
+        // 🔹 El hilo de muestreo no cuenta como hilo del servidor
+        return new Consumo(heapBase, heapMaximo.get(), hilosBase, hilosMaximo.get() - 1);
+    }
+
+    private void ejecutarFase(ExecutorService executor, List<Usuario> usuarios, int segundos, boolean registrar)
+            throws Exception {
+        registrando = registrar;
+        long fin = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+
+        List<Future<?>> trabajadores = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            Usuario usuario = usuarios.get(h % usuarios.size());
+            trabajadores.add(executor.submit(() -> {
+                new Trabajador(usuario.getEmail()).ejecutarHasta(fin);
+                return null;
+            }));
+        }
+        for (Future<?> trabajador : trabajadores) {
+            trabajador.get();
+        }
+    }
+
+    /**
+     * Sesión de un usuario: 5% logins, 45% listados, 20% lecturas por id y 30% escrituras.
+     */
+    private class Trabajador {
+
+        private final String email;
+        private final List<Long> ids = new ArrayList<>();
+        private String token;
+
+        Trabajador(String email) {
+            this.email = email;
+        }
+
+        void ejecutarHasta(long fin) throws Exception {
+            login();
+            JsonNode pagina = enviar("listar", peticion("/tareas?limite=200").GET());
+            pagina.get("tareas").forEach(tarea -> ids.add(tarea.get("id").asLong()));
+
+            while (System.nanoTime() < fin) {
+                int dado = ThreadLocalRandom.current().nextInt(100);
+                if (dado < 5) {
+                    login();
+                } else if (dado < 50) {
+                    enviar("listar", peticion("/tareas").GET());
+                } else if (dado < 70) {
+                    enviar("obtener", peticion("/tareas/" + idAlAzar()).GET());
+                } else if (dado < 85) {
+                    JsonNode creada = enviar("crear", peticion("/tareas")
+                            .POST(HttpRequest.BodyPublishers.ofString(cuerpoTarea("Nueva"))));
+                    ids.add(creada.get("id").asLong());
+                } else if (dado < 95) {
+                    enviar("actualizar", peticion("/tareas/" + idAlAzar())
+                            .PUT(HttpRequest.BodyPublishers.ofString(cuerpoTarea("Editada"))));
+                } else if (ids.size() > 1) {
+                    Long id = ids.remove(ids.size() - 1);
+                    enviar("eliminar", peticion("/tareas/" + id).DELETE());
+                }
+            }
+        }
+
+        private void login() throws Exception {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri("/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"email\":\"" + email + "\",\"password\":\"" + CONTRASENA + "\"}"));
+            token = enviar("login", builder).get("token").asText();
+        }
+
+        private Long idAlAzar() {
+            return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        private HttpRequest.Builder peticion(String ruta) {
+            return HttpRequest.newBuilder(uri(ruta))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json");
+        }
+    }
+
+    private JsonNode enviar(String endpoint, HttpRequest.Builder builder) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        HttpResponse<String> respuesta = cliente.send(builder.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        long microsegundos = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio);
+
+        if (registrando) {
+            histogramas.get(endpoint).recordValue(Math.min(microsegundos, LATENCIA_MAXIMA_US));
+        }
+        if (respuesta.statusCode() >= 300) {
+            errores.incrementAndGet();
+            throw new IllegalStateException(endpoint + " respondió " + respuesta.statusCode() + ": " + respuesta.body());
+        }
+        return respuesta.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(respuesta.body());
+    }
+
+    private static String cuerpoTarea(String titulo) {
+        return "{\"titulo\":\"" + titulo + "\",\"descripcion\":\"Prueba de carga\",\"fechaVencimiento\":\""
+                + LocalDateTime.now().plusDays(7).withNano(0) + "\"}";
+    }
+
+    private URI uri(String ruta) {
+        return URI.create("http://localhost:" + puerto + ruta);
+    }
+
+    private void informar(Consumo consumo) throws IOException {
+        Path directorio = Path.of("target", "carga", pila());
+        Files.createDirectories(directorio);
+
+        long peticiones = histogramas.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        double porSegundo = peticiones / (double) DURACION_S;
+        System.out.printf("%nCarga (%s): %d usuarios x %d tareas, %d hilos, %d s%n",
+                pila(), USUARIOS, TAREAS_POR_USUARIO, HILOS, DURACION_S);
+        System.out.printf("Rendimiento: %.1f peticiones/s; por conexión: %d KiB de pico de heap y %.2f hilos%n",
+                porSegundo, consumo.heapPorConexion() / 1024, consumo.hilosPorConexion());
+        System.out.printf("%-11s %9s %9s %9s %9s %9s%n", "endpoint", "peticiones", "p50 ms", "p99 ms", "p999 ms", "máx ms");
+        for (Map.Entry<String, Histogram> entrada : histogramas.entrySet()) {
+            Histogram h = entrada.getValue();
+            System.out.printf("%-11s %9d %9.2f %9.2f %9.2f %9.2f%n", entrada.getKey(), h.getTotalCount(),
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+
+            try (PrintStream salida = new PrintStream(
+                    Files.newOutputStream(directorio.resolve(entrada.getKey() + ".hgrm")))) {
+                h.outputPercentileDistribution(salida, 1000.0);
+            }
+        }
+
+        Properties resumen = new Properties();
+        resumen.setProperty("peticiones.por.segundo", String.format(Locale.ROOT, "%.1f", porSegundo));
+        resumen.setProperty("heap.por.conexion.bytes", Long.toString(consumo.heapPorConexion()));
+        resumen.setProperty("hilos.por.conexion", String.format(Locale.ROOT, "%.2f", consumo.hilosPorConexion()));
+        resumen.setProperty("conexiones", Integer.toString(HILOS));
+        for (Map.Entry<String, Histogram> entrada : histogramas.entrySet()) {
+            Histogram h = entrada.getValue();
+            resumen.setProperty(entrada.getKey() + ".p50.ms", String.format(Locale.ROOT, "%.2f", ms(h.getValueAtPercentile(50))));
+            resumen.setProperty(entrada.getKey() + ".p99.ms", String.format(Locale.ROOT, "%.2f", ms(h.getValueAtPercentile(99))));
+            resumen.setProperty(entrada.getKey() + ".p999.ms", String.format(Locale.ROOT, "%.2f", ms(h.getValueAtPercentile(99.9))));
+        }
+        try (OutputStream salida = Files.newOutputStream(directorio.resolve("resumen.properties"))) {
+            resumen.store(salida, "CargaApiIT, pila " + pila());
+        }
+    }
+
+    private void verificarPresupuesto() throws IOException {
+        Properties presupuesto = new Properties();
+        try (InputStream entrada = getClass().getResourceAsStream("/carga/presupuesto.properties")) {
+            presupuesto.load(entrada);
+        }
+
+        List<String> excedidos = new ArrayList<>();
+        for (Map.Entry<String, Histogram> entrada : histogramas.entrySet()) {
+            Histogram h = entrada.getValue();
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            for (Map.Entry<String, Double> percentil : Map.of("p50", 50.0, "p99", 99.0, "p999", 99.9).entrySet()) {
+                String clave = entrada.getKey() + "." + percentil.getKey();
+                // 🔹 "<pila>.<clave>" en el fichero ajusta el límite común para una sola variante
+                String limite = System.getProperty("carga.presupuesto." + clave,
+                        presupuesto.getProperty(pila() + "." + clave, presupuesto.getProperty(clave)));
+                // 🔹 Un valor vacío deja el percentil solo como dato informativo
+                if (limite == null || limite.isBlank()) {
+                    continue;
+                }
+                double medido = ms(h.getValueAtPercentile(percentil.getValue()));
+                if (medido > Double.parseDouble(limite)) {
+                    excedidos.add(clave + ": " + medido + " ms > " + limite + " ms");
+                }
+            }
+        }
+        assertTrue(excedidos.isEmpty(), "Presupuesto de latencia excedido: " + excedidos);
+    }
+
+    private static double ms(long microsegundos) {
+        return microsegundos / 1000.0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.nuevo.tareas;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@code db/schema.sql} se mantiene a mano para el perfil produccion, donde {@code ddl-auto: validate}
+ * solo comprueba que existan las tablas y las columnas. Aquí se carga ese script en una H2 vacía y
+ * el DDL que genera Hibernate para las mismas entidades en otra, y se comparan columnas (tipo y
+ * nulabilidad), claves, restricciones, índices y secuencias. Los nombres de las restricciones no
+ * cuentan: Hibernate los genera con un hash.
+ */
+@SpringBootTest(properties = {
+        // Con un action de scripts, Hibernate ignora ddl-auto: la base compartida se sigue actualizando
+        "spring.jpa.properties.jakarta.persistence.schema-generation.database.action=update",
+        "spring.jpa.properties.jakarta.persistence.schema-generation.scripts.action=create",
+        "spring.jpa.properties.jakarta.persistence.schema-generation.scripts.create-target=target/esquema-hibernate.sql",
+        "spring.jpa.properties.hibernate.hbm2ddl.schema-generation.script.append=false",
+        "spring.jpa.properties.hibernate.hbm2ddl.delimiter=;",
+        "tareas.recordatorios.habilitado=false"
+})
+class EsquemaTests {
+
+    private static final Path GENERADO = Path.of("target", "esquema-hibernate.sql");
+
+    // 🔹 PRUEBA: db/schema.sql coincide con lo que Hibernate generaría a partir de las entidades
+    @Test
+    void testSchemaSqlCoincideConLasEntidades() {
+        List<String> manual = describir(cargar("esquema-manual", "classpath:db/schema.sql"));
+        List<String> generado = describir(cargar("esquema-hibernate", GENERADO.toAbsolutePath().toString()));
+
+        List<String> sobran = new ArrayList<>(manual);
+        sobran.removeAll(generado);
+        List<String> faltan = new ArrayList<>(generado);
+        faltan.removeAll(manual);
+        assertEquals(generado, manual, "db/schema.sql difiere de las entidades. Solo en schema.sql: " + sobran
+                + "; solo en Hibernate (" + GENERADO + "): " + faltan);
+    }
+
+    private static JdbcTemplate cargar(String base, String script) {
+        JdbcTemplate jdbc = new JdbcTemplate(new SimpleDriverDataSource(new org.h2.Driver(),
+                "jdbc:h2:mem:" + base + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbc.execute("drop all objects");
+        jdbc.execute("runscript from '" + script + "'");
+        return jdbc;
+    }
+
+    private static List<String> describir(JdbcTemplate jdbc) {
+        TreeSet<String> esquema = new TreeSet<>();
+        esquema.addAll(jdbc.queryForList("select 'columna ' || lower(table_name) || '.' || lower(column_name) || ' '"
+                + " || lower(data_type) || coalesce('(' || character_maximum_length || ')', '')"
+                + " || coalesce(' precision ' || datetime_precision, '')"
+                + " || case when is_nullable = 'YES' then ' null' else ' not null' end"
+                + " || case when is_identity = 'YES' then ' identity' else '' end"
+                + " from information_schema.columns where table_schema = 'PUBLIC'", String.class));
+        // 🔹 Cada restricción por su tipo y columnas; las claves foráneas además por destino y borrado
+        esquema.addAll(jdbc.queryForList("select 'restriccion ' || lower(tc.table_name) || ' ' || lower(tc.constraint_type)"
+                + " || ' (' || (select lower(listagg(k.column_name, ', ') within group (order by k.ordinal_position))"
+                + "     from information_schema.key_column_usage k where k.constraint_name = tc.constraint_name"
+                + "     and k.table_name = tc.table_name) || ')'"
+                + " || coalesce(' -> ' || (select lower(u.table_name) || ' on delete ' || lower(r.delete_rule)"
+                + "     from information_schema.referential_constraints r join information_schema.table_constraints u"
+                + "     on u.constraint_name = r.unique_constraint_name where r.constraint_name = tc.constraint_name), '')"
+                + " from information_schema.table_constraints tc"
+                + " where tc.table_schema = 'PUBLIC' and tc.constraint_type <> 'CHECK'", String.class));
+        esquema.addAll(jdbc.queryForList("select 'check ' || lower(tc.table_name) || ' ' || lower(c.check_clause)"
+                + " from information_schema.table_constraints tc join information_schema.check_constraints c"
+                + " on c.constraint_name = tc.constraint_name where tc.table_schema = 'PUBLIC'", String.class));
+        esquema.addAll(jdbc.queryForList("select 'indice ' || lower(i.table_name) || '.' || lower(i.index_name) || ' ('"
+                + " || (select lower(listagg(c.column_name, ', ') within group (order by c.ordinal_position))"
+                + "     from information_schema.index_columns c where c.index_name = i.index_name"
+                + "     and c.table_name = i.table_name) || ')'"
+                + " from information_schema.indexes i where i.table_schema = 'PUBLIC' and not i.is_generated", String.class));
+        esquema.addAll(jdbc.queryForList("select 'secuencia ' || lower(sequence_name) || ' incremento ' || increment"
+                + " from information_schema.sequences where sequence_schema = 'PUBLIC'", String.class));
+        return new ArrayList<>(esquema);
+    }
+}
@@ -0,0 +1,154 @@
+package com.nuevo.tareas;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.model.Tarea;
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.repository.EstadoTareaRepository;
+import com.nuevo.tareas.repository.TareaRepository;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import com.nuevo.tareas.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Negociación de contenido y compresión contra el servidor embebido: MockMvc no pasa por
+ * el conector de Tomcat, que es quien comprime. HttpClient no descomprime por su cuenta,
+ * así que se ve exactamente lo que llega por la red.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class FormatosRespuestaTests {
+
+    private static final String CBOR = "application/cbor";
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final String JSON = "application/json";
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TareaRepository tareaRepository;
+
+    @Autowired
+    private EstadoTareaRepository estadoTareaRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        Usuario usuario = usuarioRepository.save(
+                new Usuario(null, "formatos" + System.nanoTime() + "@nuevo.com", "x", null));
+        EstadoTarea pendiente = estadoTareaRepository.findByNombre(EstadoTarea.PENDIENTE).orElseThrow();
+        List<Tarea> tareas = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tareas.add(new Tarea(null, "Tarea " + i, "Descripción de la tarea número " + i, LocalDateTime.now(),
+                    LocalDateTime.now().plusDays(i), usuario, pendiente, null, null));
+        }
+        tareaRepository.saveAll(tareas);
+        token = jwtUtil.generateToken(usuario);
+    }
+
+    // 🔹 PRUEBA: La misma página en JSON, CBOR y Smile; los binarios ocupan menos y conservan las fechas ISO
+    @Test
+    void testNegociacionBinaria() throws Exception {
+        HttpResponse<byte[]> json = pedir(JSON, null);
+        HttpResponse<byte[]> cbor = pedir(CBOR, null);
+        HttpResponse<byte[]> smile = pedir(SMILE, null);
+
+        // Sin Accept se sigue respondiendo en JSON
+        assertEquals(JSON, tipo(pedir(null, null)));
+        assertEquals(CBOR, tipo(cbor));
+        assertEquals(SMILE, tipo(smile));
+        // Tomcat escribe los nombres de Vary en minúsculas y añade accept-encoding
+        assertTrue(cbor.headers().allValues(HttpHeaders.VARY).stream()
+                .flatMap(v -> Arrays.stream(v.split(",")))
+                .anyMatch(v -> v.trim().equalsIgnoreCase(HttpHeaders.ACCEPT)));
+
+        JsonNode esperado = new ObjectMapper().readTree(json.body());
+        JsonNode desdeCbor = new CBORMapper().readTree(cbor.body());
+        JsonNode desdeSmile = new SmileMapper().readTree(smile.body());
+        assertEquals(esperado, desdeCbor);
+        assertEquals(esperado, desdeSmile);
+        assertEquals(50, desdeCbor.get("tareas").size());
+        assertTrue(desdeCbor.get("tareas").get(0).get("fechaVencimiento").isTextual());
+
+        assertTrue(cbor.body().length < json.body().length);
+        assertTrue(smile.body().length < cbor.body().length);
+    }
+
+    // 🔹 PRUEBA: Por encima del umbral se responde en gzip; una respuesta pequeña va sin comprimir
+    @Test
+    void testCompresionPorTamano() throws Exception {
+        HttpResponse<byte[]> plano = pedir(JSON, null);
+        HttpResponse<byte[]> comprimido = pedir(JSON, "gzip");
+
+        assertEquals("gzip", comprimido.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        assertTrue(comprimido.body().length < plano.body().length);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(comprimido.body()))) {
+            assertEquals(new ObjectMapper().readTree(plano.body()), new ObjectMapper().readTree(gzip.readAllBytes()));
+        }
+
+        HttpResponse<byte[]> pequena = enviar(HttpRequest.newBuilder(URI.create(url("/tareas?limite=1")))
+                .header(HttpHeaders.ACCEPT, JSON)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        assertEquals(200, pequena.statusCode());
+        assertTrue(pequena.headers().firstValue(HttpHeaders.CONTENT_LENGTH).isPresent());
+        assertFalse(pequena.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isPresent());
+    }
+
+    private HttpResponse<byte[]> pedir(String tipo, String codificacion) throws IOException, InterruptedException {
+        HttpRequest.Builder peticion = HttpRequest.newBuilder(URI.create(url("/tareas?limite=50")));
+        if (tipo != null) {
+            peticion.header(HttpHeaders.ACCEPT, tipo);
+        }
+        if (codificacion != null) {
+            peticion.header(HttpHeaders.ACCEPT_ENCODING, codificacion);
+        }
+        HttpResponse<byte[]> respuesta = enviar(peticion);
+        assertEquals(200, respuesta.statusCode());
+        return respuesta;
+    }
+
+    private HttpResponse<byte[]> enviar(HttpRequest.Builder peticion) throws IOException, InterruptedException {
+        return http.send(peticion.header(HttpHeaders.AUTHORIZATION, "Bearer " + token).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private String url(String ruta) {
+        return "http://localhost:" + puerto + ruta;
+    }
+
+    private static String tipo(HttpResponse<?> respuesta) {
+        return respuesta.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse("");
+    }
+}
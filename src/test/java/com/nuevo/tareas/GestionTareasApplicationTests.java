@@ -1,5 +1,6 @@
 package com.nuevo.tareas;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.nuevo.tareas.model.EstadoTarea;
@@ -20,10 +21,19 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -74,7 +84,7 @@ class GestionTareasApplicationTests {
         usuarioRepository.save(usuario);
 
         // Generar token JWT para autenticación en pruebas
-        token = jwtUtil.generateToken(usuario.getEmail());
+        token = jwtUtil.generateToken(usuario);
     }
 
     @Test
@@ -100,6 +110,66 @@ class GestionTareasApplicationTests {
                 .andExpect(status().isUnauthorized());
     }
 
+    // 🔹 PRUEBA: El token de refresco rota y su reutilización revoca la sesión completa
+    @Test
+    void testRefreshToken_RotacionYReutilizacion() throws Exception {
+        String primero = login().get("refreshToken").asText();
+
+        JsonNode renovado = refresh(primero, 200);
+        String segundo = renovado.get("refreshToken").asText();
+        assertTrue(!segundo.equals(primero));
+
+        mockMvc.perform(get("/tareas")
+                .header("Authorization", "Bearer " + renovado.get("token").asText()))
+                .andExpect(status().isOk());
+
+        // Reutilizar el token ya rotado invalida también el que se emitió a partir de él
+        refresh(primero, 401);
+        refresh(segundo, 401);
+    }
+
+    // 🔹 PRUEBA: Logout invalida el token de refresco
+    @Test
+    void testLogout() throws Exception {
+        String refreshToken = login().get("refreshToken").asText();
+
+        mockMvc.perform(post("/auth/logout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isNoContent());
+
+        refresh(refreshToken, 401);
+    }
+
+    // 🔹 PRUEBA: La autenticación queda contada en /actuator/metrics
+    @Test
+    void testMetricasAutenticacion() throws Exception {
+        mockMvc.perform(get("/tareas")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/autenticacion.jwt")
+                .header("Authorization", "Bearer " + token)
+                .param("tag", "resultado:exito"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(greaterThanOrEqualTo(1.0)));
+
+        mockMvc.perform(get("/actuator/metrics/autenticacion.jwt"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    // 🔹 PRUEBA: El token de un usuario eliminado deja de autenticar
+    @Test
+    void testTokenDeUsuarioEliminado() throws Exception {
+        usuarioRepository.findByEmail(adminEmail).ifPresent(usuarioRepository::delete);
+
+        mockMvc.perform(get("/tareas")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
     // 🔹 PRUEBA: Obtener todas las tareas (debe estar autenticado)
     @Test
     void testGetTareas() throws Exception {
@@ -127,6 +197,33 @@ class GestionTareasApplicationTests {
                 .andExpect(jsonPath("$.titulo").value("Nueva tarea"));
     }
 
+    // 🔹 PRUEBA: La tarea nueva toma el estado "Pendiente" del catálogo en memoria
+    @Test
+    void testCrearTarea_EstadoPendiente() throws Exception {
+        Tarea tarea = new Tarea();
+        tarea.setTitulo("Tarea con estado");
+        tarea.setDescripcion("Estado asignado desde el catálogo");
+        tarea.setFechaVencimiento(LocalDateTime.now().plusDays(1));
+
+        mockMvc.perform(post("/tareas")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tarea)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado.nombre").value(EstadoTarea.PENDIENTE));
+
+        mockMvc.perform(get("/tareas")
+                .header("Authorization", "Bearer " + token)
+                .param("estado", EstadoTarea.COMPLETADA))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tareas").isEmpty());
+
+        mockMvc.perform(get("/tareas")
+                .header("Authorization", "Bearer " + token)
+                .param("estado", "Inexistente"))
+                .andExpect(status().isBadRequest());
+    }
+
     // 🔹 PRUEBA: Actualizar una tarea existente
     @Test
 	void testActualizarTarea() throws Exception {
@@ -195,4 +292,447 @@ class GestionTareasApplicationTests {
 		}
 	}
 
+    // 🔹 PRUEBA: Actualizar o eliminar una tarea ajena da 403 y una inexistente 404, sin tocar nada
+    @Test
+	void testEscriturasAjenasEInexistentes() throws Exception {
+		Usuario otro = usuarioRepository.save(new Usuario(null, "ajeno" + System.nanoTime() + "@nuevo.com", "x", null));
+		EstadoTarea estadoPendiente = estadoTareaRepository.findByNombre("Pendiente").orElseThrow();
+		Tarea ajena = tareaRepository.save(new Tarea(null, "Ajena", "De otro usuario", LocalDateTime.now(),
+				LocalDateTime.now().plusDays(1), otro, estadoPendiente, null, null));
+
+		Tarea datos = new Tarea();
+		datos.setTitulo("Intento");
+		datos.setDescripcion("No debería aplicarse");
+		datos.setFechaVencimiento(LocalDateTime.now().plusDays(2));
+		String json = objectMapper.writeValueAsString(datos);
+
+		mockMvc.perform(put("/tareas/" + ajena.getId())
+				.header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(json))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(delete("/tareas/" + ajena.getId())
+				.header("Authorization", "Bearer " + token))
+				.andExpect(status().isForbidden());
+
+		Tarea intacta = tareaRepository.findById(ajena.getId()).orElseThrow();
+		assertEquals("Ajena", intacta.getTitulo());
+		assertEquals(ajena.getVersion(), intacta.getVersion());
+
+		mockMvc.perform(put("/tareas/" + Long.MAX_VALUE)
+				.header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(json))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(delete("/tareas/" + Long.MAX_VALUE)
+				.header("Authorization", "Bearer " + token))
+				.andExpect(status().isNotFound());
+
+		usuarioRepository.delete(otro);
+	}
+
+    // 🔹 PRUEBA: Lote con creaciones, actualización, eliminación ajena, inexistente o repetida y elemento inválido
+    @Test
+	void testAplicarLote() throws Exception {
+		Usuario usuario = usuarioRepository.findByEmail(adminEmail).orElseThrow();
+		Usuario otro = usuarioRepository.save(new Usuario(null, "otro" + System.nanoTime() + "@nuevo.com", "x", null));
+		EstadoTarea estadoPendiente = estadoTareaRepository.findByNombre("Pendiente").orElseThrow();
+
+		Tarea propia = tareaRepository.save(new Tarea(null, "Propia", "Antes del lote", LocalDateTime.now(),
+				LocalDateTime.now().plusDays(1), usuario, estadoPendiente, null, null));
+		Tarea ajena = tareaRepository.save(new Tarea(null, "Ajena", "De otro usuario", LocalDateTime.now(),
+				LocalDateTime.now().plusDays(1), otro, estadoPendiente, null, null));
+
+		Tarea datos = new Tarea();
+		datos.setTitulo("Desde lote");
+		datos.setDescripcion("Creada o actualizada en lote");
+		datos.setFechaVencimiento(LocalDateTime.now().plusDays(2));
+
+		List<Map<String, Object>> operaciones = List.of(
+				Map.of("operacion", "CREAR", "tarea", datos),
+				Map.of("operacion", "CREAR", "tarea", datos),
+				Map.of("operacion", "ACTUALIZAR", "id", propia.getId(), "tarea", datos),
+				Map.of("operacion", "ELIMINAR", "id", ajena.getId()),
+				Map.of("operacion", "CREAR", "tarea", Map.of("titulo", "Incompleta")),
+				Map.of("operacion", "ACTUALIZAR", "id", Long.MAX_VALUE, "tarea", datos),
+				Map.of("operacion", "ELIMINAR", "id", Long.MAX_VALUE),
+				Map.of("operacion", "ACTUALIZAR", "id", ajena.getId(), "tarea", datos),
+				Map.of("operacion", "ELIMINAR", "id", propia.getId()),
+				Map.of("operacion", "ELIMINAR", "id", propia.getId()));
+
+		mockMvc.perform(post("/tareas/batch")
+				.header("Authorization", "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(operaciones)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].estado").value(200))
+				.andExpect(jsonPath("$[0].tarea.id").exists())
+				.andExpect(jsonPath("$[1].estado").value(200))
+				.andExpect(jsonPath("$[2].estado").value(200))
+				.andExpect(jsonPath("$[2].tarea.titulo").value("Desde lote"))
+				.andExpect(jsonPath("$[3].estado").value(403))
+				.andExpect(jsonPath("$[4].estado").value(400))
+				// Los mismos códigos que PUT y DELETE /tareas/{id}
+				.andExpect(jsonPath("$[5].estado").value(404))
+				.andExpect(jsonPath("$[6].estado").value(404))
+				.andExpect(jsonPath("$[7].estado").value(403))
+				.andExpect(jsonPath("$[8].estado").value(204))
+				// Ya eliminada por la operación anterior del mismo lote
+				.andExpect(jsonPath("$[9].estado").value(404));
+
+		assertTrue(tareaRepository.findById(propia.getId()).isEmpty());
+		assertEquals("Ajena", tareaRepository.findById(ajena.getId()).orElseThrow().getTitulo());
+		assertEquals(2, tareaRepository.findByUsuarioId(usuario.getId()).size());
 	}
+
+    // 🔹 PRUEBA: Exportación en NDJSON y CSV
+    @Test
+    void testExportarTareas() throws Exception {
+        Usuario usuario = usuarioRepository.findByEmail(adminEmail).orElseThrow();
+        EstadoTarea estadoPendiente = estadoTareaRepository.findByNombre("Pendiente").orElseThrow();
+        tareaRepository.save(new Tarea(null, "Exportar, con coma", "Línea \"uno\"", LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1), usuario, estadoPendiente, null, null));
+        tareaRepository.save(new Tarea(null, "Exportar dos", "Otra", LocalDateTime.now(),
+                LocalDateTime.now().plusDays(2), usuario, estadoPendiente, null, null));
+
+        MvcResult ndjson = mockMvc.perform(get("/tareas/export")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String lineas = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertEquals(2, lineas.lines().count());
+        assertEquals("Exportar, con coma", objectMapper.readTree(lineas.lines().findFirst().orElseThrow())
+                .get("titulo").asText());
+
+        MvcResult csv = mockMvc.perform(get("/tareas/export")
+                .header("Authorization", "Bearer " + token)
+                .param("formato", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String filas = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<String> registros = filas.lines().toList();
+        assertEquals(3, registros.size());
+        assertTrue(registros.get(1).contains(",\"Exportar, con coma\",\"Línea \"\"uno\"\"\","));
+
+        mockMvc.perform(get("/tareas/export")
+                .header("Authorization", "Bearer " + token)
+                .param("formato", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // 🔹 PRUEBA: El CSV exportado no deja fórmulas que una hoja de cálculo evaluaría
+    @Test
+    void testExportarCsv_NeutralizaFormulas() throws Exception {
+        Usuario usuario = usuarioRepository.findByEmail(adminEmail).orElseThrow();
+        EstadoTarea estadoPendiente = estadoTareaRepository.findByNombre("Pendiente").orElseThrow();
+        tareaRepository.save(new Tarea(null, "=HYPERLINK(\"http://malo\",\"clic\")", "@SUM(A1:A9)", LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1), usuario, estadoPendiente, null, null));
+        tareaRepository.save(new Tarea(null, "+cmd|' /C calc'!A0", "-2+3", LocalDateTime.now(),
+                LocalDateTime.now().plusDays(2), usuario, estadoPendiente, null, null));
+        tareaRepository.save(new Tarea(null, "\tTabulada", "Sin fórmula", LocalDateTime.now(),
+                LocalDateTime.now().plusDays(3), usuario, estadoPendiente, null, null));
+
+        MvcResult csv = mockMvc.perform(get("/tareas/export")
+                .header("Authorization", "Bearer " + token)
+                .param("formato", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        List<String> registros = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals(4, registros.size());
+        assertTrue(registros.get(1).contains(",\"'=HYPERLINK(\"\"http://malo\"\",\"\"clic\"\")\",'@SUM(A1:A9),"),
+                registros.get(1));
+        assertTrue(registros.get(2).contains(",'+cmd|' /C calc'!A0,'-2+3,"), registros.get(2));
+        assertTrue(registros.get(3).contains(",'\tTabulada,Sin fórmula,"), registros.get(3));
+    }
+
+    // 🔹 PRUEBA: Paginación por cursor recorre todas las tareas sin repetir ni saltar
+    @Test
+    void testGetTareas_PaginacionPorCursor() throws Exception {
+        Usuario usuario = usuarioRepository.findByEmail(adminEmail).orElseThrow();
+        EstadoTarea estadoPendiente = estadoTareaRepository.findByNombre("Pendiente").orElseThrow();
+        LocalDateTime vencimiento = LocalDateTime.now().plusDays(1).withNano(0);
+
+        for (int i = 0; i < 5; i++) {
+            Tarea tarea = new Tarea();
+            tarea.setTitulo("Tarea " + i);
+            tarea.setDescripcion("Paginación");
+            tarea.setFechaCreacion(LocalDateTime.now());
+            // Dos tareas comparten vencimiento para ejercitar el desempate por id
+            tarea.setFechaVencimiento(vencimiento.plusHours(i / 2));
+            tarea.setUsuario(usuario);
+            tarea.setEstado(estadoPendiente);
+            tareaRepository.save(tarea);
+        }
+
+        List<String> titulos = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/tareas")
+                    .header("Authorization", "Bearer " + token)
+                    .param("limite", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode pagina = objectMapper.readTree(body);
+            pagina.get("tareas").forEach(t -> titulos.add(t.get("titulo").asText()));
+            cursor = pagina.get("siguienteCursor").isNull() ? null : pagina.get("siguienteCursor").asText();
+        } while (cursor != null);
+
+        assertEquals(List.of("Tarea 0", "Tarea 1", "Tarea 2", "Tarea 3", "Tarea 4"), titulos);
+    }
+
+    // 🔹 PRUEBA: GET /tareas responde 304 mientras la colección no cambie
+    @Test
+    void testGetTareas_EtagCondicional() throws Exception {
+        String etag = mockMvc.perform(get("/tareas")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/tareas")
+                .header("Authorization", "Bearer " + token)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        Tarea tarea = new Tarea();
+        tarea.setTitulo("Cambia la colección");
+        tarea.setDescripcion("Invalida la ETag");
+        tarea.setFechaVencimiento(LocalDateTime.now().plusDays(1));
+        mockMvc.perform(post("/tareas")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tarea)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/tareas")
+                .header("Authorization", "Bearer " + token)
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    // 🔹 PRUEBA: PUT con If-Match obsoleto no sobrescribe y responde 412
+    @Test
+    void testActualizarTarea_IfMatch() throws Exception {
+        Tarea tarea = new Tarea();
+        tarea.setTitulo("Versionada");
+        tarea.setDescripcion("Versión inicial");
+        tarea.setFechaVencimiento(LocalDateTime.now().plusDays(3));
+        MvcResult creada = mockMvc.perform(post("/tareas")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tarea)))
+                .andExpect(status().isOk())
+                .andReturn();
+        long id = objectMapper.readTree(creada.getResponse().getContentAsString()).get("id").asLong();
+        String etagInicial = creada.getResponse().getHeader("ETag");
+
+        tarea.setDescripcion("Primera edición");
+        String etagNueva = mockMvc.perform(put("/tareas/" + id)
+                .header("Authorization", "Bearer " + token)
+                .header("If-Match", etagInicial)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tarea)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue(!etagNueva.equals(etagInicial));
+
+        // Otro cliente todavía tiene la versión inicial
+        tarea.setDescripcion("Edición concurrente");
+        mockMvc.perform(put("/tareas/" + id)
+                .header("Authorization", "Bearer " + token)
+                .header("If-Match", etagInicial)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tarea)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/tareas/" + id)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etagNueva))
+                .andExpect(jsonPath("$.descripcion").value("Primera edición"));
+    }
+
+    // 🔹 PRUEBA: /tareas/changes devuelve solo lo ocurrido desde el cursor, en páginas acotadas
+    @Test
+    void testSincronizacionPorCambios() throws Exception {
+        String cursor = sincronizar("0", 50, new ArrayList<>(), new ArrayList<>());
+
+        long a = crearTareaPorApi("Sincronizada A");
+        long b = crearTareaPorApi("Sincronizada B");
+        crearTareaPorApi("Sincronizada C");
+
+        Tarea cambios = new Tarea();
+        cambios.setTitulo("Sincronizada A editada");
+        cambios.setDescripcion("Editada");
+        cambios.setFechaVencimiento(LocalDateTime.now().plusDays(2));
+        mockMvc.perform(put("/tareas/" + a)
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(cambios)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/tareas/" + b)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        // Páginas de un elemento: C, A (editada después) y la eliminación de B
+        List<String> modificadas = new ArrayList<>();
+        List<Long> eliminadas = new ArrayList<>();
+        cursor = sincronizar(cursor, 1, modificadas, eliminadas);
+
+        assertEquals(List.of("Sincronizada C", "Sincronizada A editada"), modificadas);
+        assertEquals(List.of(b), eliminadas);
+
+        // Sin cambios nuevos el cursor no devuelve nada
+        mockMvc.perform(get("/tareas/changes")
+                .header("Authorization", "Bearer " + token)
+                .param("since", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.modificadas.length()").value(0))
+                .andExpect(jsonPath("$.eliminadas.length()").value(0))
+                .andExpect(jsonPath("$.hayMas").value(false));
+
+        mockMvc.perform(get("/tareas/changes")
+                .header("Authorization", "Bearer " + token)
+                .param("since", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // 🔹 PRUEBA: /tareas/stream entrega los cambios confirmados como eventos SSE
+    @Test
+    void testStreamTareas() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/tareas/stream")
+                .header("Authorization", "Bearer " + token)
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        long id = crearTareaPorApi("Por stream");
+        mockMvc.perform(delete("/tareas/" + id)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        // Los eventos salen en otro hilo tras el commit
+        String eventos = "";
+        for (int intento = 0; intento < 50 && !eventos.contains("ELIMINADA"); intento++) {
+            Thread.sleep(100);
+            eventos = stream.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        }
+        assertTrue(eventos.contains("event:tarea"), eventos);
+        assertTrue(eventos.indexOf("\"tipo\":\"CREADA\"") < eventos.indexOf("\"tipo\":\"ELIMINADA\""), eventos);
+        assertTrue(eventos.contains("\"titulo\":\"Por stream\""), eventos);
+        assertTrue(eventos.contains("\"id\":" + id), eventos);
+
+        // Tope de conexiones simultáneas por usuario (5 en application.yml)
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/tareas/stream").header("Authorization", "Bearer " + token))
+                    .andExpect(request().asyncStarted());
+        }
+        mockMvc.perform(get("/tareas/stream").header("Authorization", "Bearer " + token))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    // 🔹 PRUEBA: Búsqueda por texto sin distinguir tildes, actualizada al crear y eliminar
+    @Test
+    void testBuscarTareas() throws Exception {
+        long reunion = crearTareaPorApi("Reunión con el equipo");
+        crearTareaPorApi("Comprar material");
+
+        mockMvc.perform(get("/tareas/search")
+                .header("Authorization", "Bearer " + token)
+                .param("q", "REUNION equ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.tareas[0].id").value(reunion));
+
+        mockMvc.perform(delete("/tareas/" + reunion)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/tareas/search")
+                .header("Authorization", "Bearer " + token)
+                .param("q", "reunión"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0));
+
+        mockMvc.perform(get("/tareas/search")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    // 🔹 PRUEBA: Un cursor adulterado se rechaza
+    @Test
+    void testGetTareas_CursorInvalido() throws Exception {
+        mockMvc.perform(get("/tareas")
+                .header("Authorization", "Bearer " + token)
+                .param("cursor", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long crearTareaPorApi(String titulo) throws Exception {
+        Tarea tarea = new Tarea();
+        tarea.setTitulo(titulo);
+        tarea.setDescripcion("Creada por la API");
+        tarea.setFechaVencimiento(LocalDateTime.now().plusDays(1));
+        String cuerpo = mockMvc.perform(post("/tareas")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(tarea)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(cuerpo).get("id").asLong();
+    }
+
+    /**
+     * Recorre /tareas/changes desde el cursor hasta que no queden páginas y devuelve el cursor final.
+     */
+    private String sincronizar(String cursor, int limite, List<String> modificadas, List<Long> eliminadas)
+            throws Exception {
+        JsonNode pagina;
+        do {
+            String cuerpo = mockMvc.perform(get("/tareas/changes")
+                    .header("Authorization", "Bearer " + token)
+                    .param("since", cursor)
+                    .param("limite", String.valueOf(limite)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            pagina = objectMapper.readTree(cuerpo);
+            assertTrue(pagina.get("modificadas").size() + pagina.get("eliminadas").size() <= limite);
+            pagina.get("modificadas").forEach(t -> modificadas.add(t.get("titulo").asText()));
+            pagina.get("eliminadas").forEach(id -> eliminadas.add(id.asLong()));
+            cursor = pagina.get("siguienteCursor").asText();
+        } while (pagina.get("hayMas").asBoolean());
+        return cursor;
+    }
+
+    private JsonNode login() throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + adminEmail + "\", \"password\":\"" + adminPassword + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andReturn();
+        return objectMapper.readTree(resultado.getResponse().getContentAsString());
+    }
+
+    private JsonNode refresh(String refreshToken, int estadoEsperado) throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().is(estadoEsperado))
+                .andReturn();
+        return objectMapper.readTree(resultado.getResponse().getContentAsString());
+    }
+
+	
+}
@@ -0,0 +1,88 @@
+package com.nuevo.tareas;
+
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import com.nuevo.tareas.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Límites muy bajos para comprobar el 429 sin depender del tiempo.
+ */
+@SpringBootTest(properties = {
+        "limite-tasa.reglas[0].ruta=/auth/login",
+        "limite-tasa.reglas[0].metodo=POST",
+        "limite-tasa.reglas[0].peticiones=1",
+        "limite-tasa.reglas[0].periodo=1h",
+        "limite-tasa.reglas[0].rafaga=2",
+        "limite-tasa.reglas[1].ruta=/tareas/**",
+        "limite-tasa.reglas[1].peticiones=1",
+        "limite-tasa.reglas[1].periodo=1h",
+        "limite-tasa.reglas[1].rafaga=2"
+})
+@AutoConfigureMockMvc
+class LimiteTasaTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    // 🔹 PRUEBA: Cada usuario autenticado tiene su propia cubeta
+    @Test
+    void testLimitePorUsuario() throws Exception {
+        String tokenA = jwtUtil.generateToken(crearUsuario("limite-a@nuevo.com"));
+        String tokenB = jwtUtil.generateToken(crearUsuario("limite-b@nuevo.com"));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/tareas").header("Authorization", "Bearer " + tokenA))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/tareas").header("Authorization", "Bearer " + tokenA))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        mockMvc.perform(get("/tareas").header("Authorization", "Bearer " + tokenB))
+                .andExpect(status().isOk());
+    }
+
+    // 🔹 PRUEBA: Los intentos de login anónimos se limitan por IP
+    @Test
+    void testLimiteDeLoginPorIp() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/auth/login")
+                    .with(request -> { request.setRemoteAddr("10.0.0.1"); return request; })
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"email\":\"nadie@nuevo.com\", \"password\":\"x\"}"))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(post("/auth/login")
+                .with(request -> { request.setRemoteAddr("10.0.0.1"); return request; })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"nadie@nuevo.com\", \"password\":\"x\"}"))
+                .andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(post("/auth/login")
+                .with(request -> { request.setRemoteAddr("10.0.0.2"); return request; })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"nadie@nuevo.com\", \"password\":\"x\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private Usuario crearUsuario(String email) {
+        return usuarioRepository.findByEmail(email)
+                .orElseGet(() -> usuarioRepository.save(new Usuario(null, email, "sin-login", null)));
+    }
+}
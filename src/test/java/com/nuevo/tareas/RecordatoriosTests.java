@@ -0,0 +1,105 @@
+package com.nuevo.tareas;
+
+import com.nuevo.tareas.dto.EventoTarea;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.dto.TipoEvento;
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.model.Tarea;
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.repository.TareaRepository;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import com.nuevo.tareas.service.TareaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Resolución de 100 ms y marcado de vencidas activado para no esperar más de un par de segundos.
+ */
+@SpringBootTest(properties = {
+        "tareas.recordatorios.resolucion=100",
+        "tareas.recordatorios.marcar-vencidas=true"
+})
+class RecordatoriosTests {
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private TareaRepository tareaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private Avisos avisos;
+
+    @TestConfiguration
+    static class Avisos {
+        final List<EventoTarea> recibidos = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void recibir(EventoTarea evento) {
+            if (evento.tipo() == TipoEvento.POR_VENCER || evento.tipo() == TipoEvento.VENCIDA) {
+                recibidos.add(evento);
+            }
+        }
+
+        List<Long> ids(TipoEvento tipo) {
+            return recibidos.stream().filter(evento -> evento.tipo() == tipo).map(EventoTarea::id).toList();
+        }
+    }
+
+    // 🔹 PRUEBA: Aviso previo, aviso al vencer y paso a Vencida; lo eliminado o aplazado no avisa
+    @Test
+    void testAvisosYMarcadoDeVencidas() throws Exception {
+        Long usuarioId = usuarioRepository.findByEmail("recordatorios@nuevo.com")
+                .orElseGet(() -> usuarioRepository.save(new Usuario(null, "recordatorios@nuevo.com", "sin-login", null)))
+                .getId();
+
+        LocalDateTime pronto = LocalDateTime.now().plusNanos(1_500_000_000L);
+        TareaDTO vence = tareaService.crear(usuarioId, nueva("Vence pronto", pronto));
+        TareaDTO eliminada = tareaService.crear(usuarioId, nueva("Se elimina", pronto));
+        TareaDTO aplazada = tareaService.crear(usuarioId, nueva("Se aplaza", pronto));
+        tareaService.eliminar(usuarioId, eliminada.id());
+        tareaService.actualizar(usuarioId, aplazada.id(), nueva("Se aplaza", pronto.plusDays(3)), null);
+
+        for (int intento = 0; intento < 50 && !avisos.ids(TipoEvento.VENCIDA).contains(vence.id()); intento++) {
+            Thread.sleep(100);
+        }
+        // Un momento más por si llegara algún aviso que no corresponde
+        Thread.sleep(500);
+
+        // La antelación por defecto (1 h) es mayor que lo que falta: el aviso previo sale enseguida
+        assertTrue(avisos.ids(TipoEvento.POR_VENCER).contains(vence.id()));
+        assertEquals(List.of(vence.id()), avisos.ids(TipoEvento.VENCIDA).stream()
+                .filter(id -> List.of(vence.id(), eliminada.id(), aplazada.id()).contains(id)).toList());
+        assertFalse(LocalDateTime.now().isBefore(pronto));
+
+        TareaDTO marcada = tareaRepository.findDtoByIdAndUsuarioId(vence.id(), usuarioId).orElseThrow();
+        assertEquals(EstadoTarea.VENCIDA, marcada.estado().nombre());
+
+        // Con una fecha futura vuelve a Pendiente
+        TareaDTO reabierta = tareaService.actualizar(usuarioId, vence.id(),
+                nueva("Vence pronto", LocalDateTime.now().plusDays(1)), null).orElseThrow();
+        assertEquals(EstadoTarea.PENDIENTE, reabierta.estado().nombre());
+    }
+
+    private static Tarea nueva(String titulo, LocalDateTime fechaVencimiento) {
+        Tarea tarea = new Tarea();
+        tarea.setTitulo(titulo);
+        tarea.setDescripcion("Recordatorio");
+        tarea.setFechaVencimiento(fechaVencimiento);
+        return tarea;
+    }
+}
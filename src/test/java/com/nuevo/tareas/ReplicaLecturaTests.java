@@ -0,0 +1,171 @@
+package com.nuevo.tareas;
+
+import com.nuevo.tareas.config.CopiaLocalReplica;
+import com.nuevo.tareas.config.MonitorReplica;
+import com.nuevo.tareas.config.RutaDataSource;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.model.Tarea;
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.repository.TareaRepository;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import com.nuevo.tareas.security.JwtUtil;
+import com.nuevo.tareas.service.TareaService;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Dos bases H2: la copia local lleva los datos de la principal a la réplica cada 200 ms.
+ * Ninguna otra prueba usa esta configuración, así que detener la copia no afecta a las demás;
+ * por eso la prueba que la detiene va la última.
+ * No se usa @DirtiesContext: cerrar el contexto cerraría la caché de segundo nivel, que JCache
+ * comparte entre todos los contextos de la JVM.
+ */
+@SpringBootTest(properties = {
+        "tareas.replica.habilitada=true",
+        "tareas.replica.latido=100",
+        "tareas.replica.retraso-maximo=3000",
+        "tareas.replica.copia-local.intervalo=200"
+})
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReplicaLecturaTests {
+
+    private static final String PRIMARIA = "TAREASDB";
+    private static final String REPLICA = "TAREASDB-REPLICA";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private TareaRepository tareaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MonitorReplica monitor;
+
+    @Autowired
+    private CopiaLocalReplica copia;
+
+    // 🔹 PRUEBA: Lecturas a la réplica, escrituras a la principal y vuelta a la principal si la réplica se atrasa
+    @Test
+    @Order(2)
+    void testRuteoYRetraso() throws Exception {
+        esperarReplica();
+
+        assertEquals(REPLICA, baseDeDatos(true));
+        assertEquals(PRIMARIA, baseDeDatos(false));
+        assertEquals(PRIMARIA, RutaDataSource.enPrimaria(() -> baseDeDatos(true)));
+
+        // Lo escrito en la principal aparece en la réplica tras la siguiente copia
+        Usuario usuario = usuarioRepository.save(new Usuario(null, "replica" + System.nanoTime() + "@nuevo.com", "x", null));
+        TareaDTO creada = tareaService.crear(usuario.getId(), nueva());
+        Optional<TareaDTO> leida = Optional.empty();
+        for (int intento = 0; intento < 50 && leida.isEmpty(); intento++) {
+            Thread.sleep(100);
+            leida = lectura().execute(estado -> {
+                assertEquals(REPLICA, jdbcTemplate.queryForObject("select database()", String.class));
+                return tareaRepository.findDtoByIdAndUsuarioId(creada.id(), usuario.getId());
+            });
+        }
+        assertEquals(creada.titulo(), leida.orElseThrow().titulo());
+
+        // Sin copia, el retraso supera el máximo y las lecturas vuelven a la principal
+        copia.cerrar();
+        Thread.sleep(3500);
+        long desvios = monitor.getDesvios();
+        assertEquals(PRIMARIA, baseDeDatos(true));
+        assertTrue(monitor.getRetraso() > 3000);
+        assertTrue(monitor.getDesvios() > desvios);
+    }
+
+    // 🔹 PRUEBA: Entre el commit y la copia a la réplica, GET /tareas no sirve la lista vieja con la ETag nueva
+    @Test
+    @Order(1)
+    void testEtagConReplicaAtrasada() throws Exception {
+        esperarReplica();
+        Usuario usuario = usuarioRepository.save(new Usuario(null, "etag" + System.nanoTime() + "@nuevo.com", "x", null));
+        String token = "Bearer " + jwtUtil.generateToken(usuario);
+        String etagVacia = mockMvc.perform(get("/tareas").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tareas.length()").value(0))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Mientras se tiene el monitor de la copia, la réplica no recibe nada pero sigue dentro del retraso máximo
+        synchronized (copia) {
+            TareaDTO creada = tareaService.crear(usuario.getId(), nueva());
+            Optional<TareaDTO> enReplica = lectura().execute(estado -> {
+                assertEquals(REPLICA, jdbcTemplate.queryForObject("select database()", String.class));
+                return tareaRepository.findDtoByIdAndUsuarioId(creada.id(), usuario.getId());
+            });
+            assertTrue(enReplica.isEmpty(), "La copia no debía llegar a la réplica todavía");
+
+            String etag = mockMvc.perform(get("/tareas").header("Authorization", token)
+                    .header("If-None-Match", etagVacia))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.tareas.length()").value(1))
+                    .andExpect(jsonPath("$.tareas[0].id").value(creada.id()))
+                    .andReturn().getResponse().getHeader("ETag");
+            assertNotEquals(etagVacia, etag);
+            assertTrue(monitor.usarReplica(), "La réplica se consideró atrasada: la prueba no cubrió el caso");
+        }
+    }
+
+    private void esperarReplica() throws InterruptedException {
+        for (int intento = 0; intento < 100 && !monitor.usarReplica(); intento++) {
+            Thread.sleep(100);
+        }
+        assertTrue(monitor.usarReplica(), "La réplica nunca se puso al día");
+    }
+
+    private String baseDeDatos(boolean soloLectura) {
+        TransactionTemplate transaccion = soloLectura ? lectura() : new TransactionTemplate(transactionManager);
+        return transaccion.execute(estado -> jdbcTemplate.queryForObject("select database()", String.class));
+    }
+
+    private TransactionTemplate lectura() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+        return transaccion;
+    }
+
+    private static Tarea nueva() {
+        Tarea tarea = new Tarea();
+        tarea.setTitulo("En la réplica");
+        tarea.setDescripcion("Copiada desde la principal");
+        tarea.setFechaVencimiento(LocalDateTime.now().plusDays(2));
+        return tarea;
+    }
+}
@@ -0,0 +1,165 @@
+package com.nuevo.tareas;
+
+import com.nuevo.tareas.dto.OperacionTarea;
+import com.nuevo.tareas.dto.ResumenTareas;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.dto.TipoOperacion;
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.model.Tarea;
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.repository.TareaRepository;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import com.nuevo.tareas.security.JwtUtil;
+import com.nuevo.tareas.service.CatalogoEstados;
+import com.nuevo.tareas.service.ContadoresTareas;
+import com.nuevo.tareas.service.TareaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ResumenTareasTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TareaService tareaService;
+
+    @Autowired
+    private ContadoresTareas contadores;
+
+    @Autowired
+    private TareaRepository tareaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CatalogoEstados catalogoEstados;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    // 🔹 PRUEBA: Resumen por estado, vencidas y de esta semana
+    @Test
+    void testResumen() throws Exception {
+        Usuario usuario = crearUsuario("resumen@nuevo.com");
+        LocalDateTime ahora = LocalDateTime.now();
+        tareaService.crear(usuario.getId(), nueva(ahora.minusDays(2)));
+        tareaService.crear(usuario.getId(), nueva(ahora.plusDays(3)));
+        tareaService.crear(usuario.getId(), nueva(ahora.plusDays(20)));
+
+        mockMvc.perform(get("/tareas/resumen")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(usuario)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.porEstado.Pendiente").value(3))
+                .andExpect(jsonPath("$.porEstado.Completada").value(0))
+                .andExpect(jsonPath("$.vencidas").value(1))
+                .andExpect(jsonPath("$.vencenEstaSemana").value(1));
+    }
+
+    // 🔹 PRUEBA: La conciliación corrige lo escrito sin pasar por TareaService
+    @Test
+    void testConciliacion() {
+        Usuario usuario = crearUsuario("conciliacion@nuevo.com");
+        tareaService.crear(usuario.getId(), nueva(LocalDateTime.now().plusDays(1)));
+        assertFalse(contadores.conciliar(usuario.getId()));
+
+        EstadoTarea completada = catalogoEstados.porNombre(EstadoTarea.COMPLETADA).orElseThrow();
+        tareaRepository.save(new Tarea(null, "Directa", "Sin contador", LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1), usuario, completada, null, null));
+        assertEquals(1, contadores.resumen(usuario.getId()).total());
+
+        assertTrue(contadores.conciliar(usuario.getId()));
+        ResumenTareas resumen = contadores.resumen(usuario.getId());
+        assertEquals(2, resumen.total());
+        assertEquals(1, resumen.porEstado().get(EstadoTarea.COMPLETADA));
+        assertFalse(contadores.conciliar(usuario.getId()));
+    }
+
+    // 🔹 PRUEBA: Altas, ediciones, bajas y lotes concurrentes dejan los contadores exactos
+    @Test
+    void testContadoresConsistentesConEscriturasConcurrentes() throws Exception {
+        Long usuarioId = crearUsuario("concurrencia-resumen@nuevo.com").getId();
+        List<Long> ids = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(tareaService.crear(usuarioId, nueva(diaAleatorio())).id());
+        }
+
+        AtomicInteger exitos = new AtomicInteger();
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < 8; h++) {
+            tareas.add(hilos.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 40; i++) {
+                    Long id = ids.get(random.nextInt(ids.size()));
+                    try {
+                        switch (random.nextInt(5)) {
+                            case 0 -> ids.add(tareaService.crear(usuarioId, nueva(diaAleatorio())).id());
+                            case 1 -> tareaService.actualizar(usuarioId, id, nueva(diaAleatorio()), null);
+                            case 2 -> tareaService.eliminar(usuarioId, id);
+                            case 3 -> tareaService.marcarVencida(usuarioId, id);
+                            default -> tareaService.aplicarLote(usuarioId, List.of(
+                                    new OperacionTarea(TipoOperacion.CREAR, null, nueva(diaAleatorio())),
+                                    new OperacionTarea(TipoOperacion.ACTUALIZAR, id, nueva(diaAleatorio())),
+                                    new OperacionTarea(TipoOperacion.ELIMINAR, ids.get(random.nextInt(ids.size())), null)));
+                        }
+                        exitos.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Conflictos de versión o de bloqueo entre hilos: la transacción se descarta entera
+                    }
+                }
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        hilos.shutdown();
+        assertTrue(exitos.get() > 100, "Solo " + exitos.get() + " operaciones terminaron bien");
+
+        // Si algún incremento se hubiera perdido o duplicado, la conciliación tendría algo que corregir
+        assertFalse(contadores.conciliar(usuarioId));
+        long existentes = tareaRepository.findByUsuarioId(usuarioId).size();
+        assertEquals(existentes, contadores.resumen(usuarioId).total());
+    }
+
+    private static LocalDateTime diaAleatorio() {
+        return LocalDateTime.now().plusDays(ThreadLocalRandom.current().nextInt(-3, 10));
+    }
+
+    private static Tarea nueva(LocalDateTime fechaVencimiento) {
+        Tarea tarea = new Tarea();
+        tarea.setTitulo("Resumen");
+        tarea.setDescripcion("Contadores");
+        tarea.setFechaVencimiento(fechaVencimiento);
+        return tarea;
+    }
+
+    private Usuario crearUsuario(String email) {
+        usuarioRepository.findByEmail(email).ifPresent(usuarioRepository::delete);
+        return usuarioRepository.save(new Usuario(null, email, "sin-login", null));
+    }
+}
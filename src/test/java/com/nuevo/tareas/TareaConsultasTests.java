@@ -0,0 +1,254 @@
+package com.nuevo.tareas;
+
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.model.Tarea;
+import com.nuevo.tareas.model.Usuario;
+import com.nuevo.tareas.repository.EstadoTareaRepository;
+import com.nuevo.tareas.repository.TareaRepository;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import com.nuevo.tareas.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Verifica con las estadísticas de Hibernate cuántas sentencias SQL ejecutan las lecturas y
+ * las escrituras. {@link LotesJdbc} cuenta además los lotes JDBC que envía cada sesión y
+ * {@link Sentencias} guarda el SQL preparado.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session.events.auto=com.nuevo.tareas.TareaConsultasTests$LotesJdbc",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.nuevo.tareas.TareaConsultasTests$Sentencias",
+        "jwt.revalidacion-ttl=0",
+        // Los avisos de vencimiento consultan desde su propio hilo y se sumarían a lo medido
+        "tareas.recordatorios.habilitado=false"
+})
+@AutoConfigureMockMvc
+class TareaConsultasTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TareaRepository tareaRepository;
+
+    @Autowired
+    private EstadoTareaRepository estadoTareaRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String token;
+    private Long primeraTareaId;
+
+    @BeforeEach
+    void setUp() {
+        Usuario usuario = usuarioRepository.save(
+                new Usuario(null, "consultas" + System.nanoTime() + "@nuevo.com", "x", null));
+        EstadoTarea pendiente = estadoTareaRepository.findByNombre(EstadoTarea.PENDIENTE).orElseThrow();
+        EstadoTarea completada = estadoTareaRepository.findByNombre(EstadoTarea.COMPLETADA).orElseThrow();
+
+        List<Tarea> tareas = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tareas.add(new Tarea(null, "Tarea " + i, "Descripción " + i, LocalDateTime.now(),
+                    LocalDateTime.now().plusDays(i), usuario, i % 2 == 0 ? pendiente : completada, null, null));
+        }
+        primeraTareaId = tareaRepository.saveAll(tareas).get(0).getId();
+        token = jwtUtil.generateToken(usuario);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        LotesJdbc.EJECUTADOS.set(0);
+        Sentencias.PREPARADAS.clear();
+    }
+
+    @Test
+    void testListarTareas_UnaSolaSentencia() throws Exception {
+        mockMvc.perform(get("/tareas")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tareas.length()").value(20))
+                .andExpect(jsonPath("$.tareas[1].estado.nombre").value(EstadoTarea.COMPLETADA));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testObtenerTarea_UnaSolaSentencia() throws Exception {
+        mockMvc.perform(get("/tareas/" + primeraTareaId)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("Tarea 0"))
+                .andExpect(jsonPath("$.estado.nombre").value(EstadoTarea.PENDIENTE));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testListarTareas_NoModificadoSinSentencias() throws Exception {
+        String etag = mockMvc.perform(get("/tareas")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        statistics.clear();
+
+        mockMvc.perform(get("/tareas")
+                .header("Authorization", "Bearer " + token)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testObtenerTarea_NoModificadoSoloLeeLaVersion() throws Exception {
+        String etag = mockMvc.perform(get("/tareas/" + primeraTareaId)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        statistics.clear();
+
+        mockMvc.perform(get("/tareas/" + primeraTareaId)
+                .header("Authorization", "Bearer " + token)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    // 🔹 PRUEBA: PUT /tareas/{id} es un SELECT ... FOR UPDATE y un UPDATE, ambos filtrados por id y usuario, sin cargar la tarea
+    @Test
+    void testActualizarTarea_UnaSolaSentencia() throws Exception {
+        // Misma fecha de vencimiento: la tarea no cambia de contador
+        Tarea tarea = tareaRepository.findById(primeraTareaId).orElseThrow();
+        String cuerpo = new ObjectMapper().writeValueAsString(Map.of("titulo", "Editada", "descripcion", "Otra",
+                "fechaVencimiento", tarea.getFechaVencimiento().toString()));
+        statistics.clear();
+        Sentencias.PREPARADAS.clear();
+
+        mockMvc.perform(put("/tareas/" + primeraTareaId)
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titulo").value("Editada"))
+                .andExpect(jsonPath("$.version").value(tarea.getVersion() + 1));
+
+        assertEquals(2, statistics.getPrepareStatementCount(), Sentencias.PREPARADAS.toString());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(Sentencias.PREPARADAS.get(0).contains("for update"));
+        assertTrue(Sentencias.PREPARADAS.get(0).contains("usuario_id"));
+        assertTrue(Sentencias.PREPARADAS.get(1).contains("update tareas"));
+        assertTrue(Sentencias.PREPARADAS.get(1).contains("usuario_id"));
+    }
+
+    // 🔹 PRUEBA: DELETE /tareas/{id} es un SELECT ... FOR UPDATE y un DELETE filtrados por id y usuario; aparte queda el tombstone
+    @Test
+    void testEliminarTarea_UnaSolaSentencia() throws Exception {
+        mockMvc.perform(delete("/tareas/" + primeraTareaId)
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        List<String> sobreTareas = Sentencias.PREPARADAS.stream()
+                .filter(sql -> !sql.contains("tareas_eliminadas"))
+                .toList();
+        assertEquals(2, sobreTareas.size(), Sentencias.PREPARADAS.toString());
+        assertTrue(sobreTareas.get(0).contains("for update"));
+        assertTrue(sobreTareas.get(0).contains("usuario_id"));
+        assertTrue(sobreTareas.get(1).contains("delete from tareas"));
+        assertTrue(sobreTareas.get(1).contains("usuario_id"));
+        assertEquals(0, statistics.getEntityLoadCount());
+        // El resto: el INSERT del tombstone y, si el optimizador lo pide, un nextval de tareas_eliminadas_seq
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    // 🔹 PRUEBA: Las altas de POST /tareas/batch viajan en un solo lote JDBC con una sola sentencia preparada
+    @Test
+    void testLote_InsertsEnUnLoteJdbc() throws Exception {
+        int altas = 30;
+        List<Map<String, Object>> operaciones = new ArrayList<>();
+        // Mismo día de vencimiento: los contadores de GET /tareas/resumen son una sola fila
+        String vencimiento = LocalDateTime.now().plusDays(3).withNano(0).toString();
+        for (int i = 0; i < altas; i++) {
+            operaciones.add(Map.of("operacion", "CREAR", "tarea",
+                    Map.of("titulo", "Lote " + i, "descripcion", "Alta en lote", "fechaVencimiento", vencimiento)));
+        }
+
+        mockMvc.perform(post("/tareas/batch")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(operaciones)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(altas))
+                .andExpect(jsonPath("$[" + (altas - 1) + "].estado").value(200));
+
+        assertEquals(altas, statistics.getEntityInsertCount());
+        assertEquals(1, LotesJdbc.EJECUTADOS.get());
+        // El INSERT se prepara una vez; lo demás son los nextval de tareas_seq que pida el optimizador pooled
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Sentencias preparadas: " + statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * SQL que Hibernate prepara, incluidas las consultas nativas.
+     */
+    public static class Sentencias implements StatementInspector {
+
+        static final List<String> PREPARADAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            PREPARADAS.add(sql);
+            return sql;
+        }
+    }
+
+    /**
+     * Hibernate crea una instancia por sesión; el contador es global porque la sesión es la de la petición.
+     */
+    public static class LotesJdbc implements SessionEventListener {
+
+        static final AtomicInteger EJECUTADOS = new AtomicInteger();
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            EJECUTADOS.incrementAndGet();
+        }
+    }
+}
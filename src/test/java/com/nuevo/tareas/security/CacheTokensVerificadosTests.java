@@ -0,0 +1,74 @@
+package com.nuevo.tareas.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheTokensVerificadosTests {
+
+    private static final UsuarioAutenticado USUARIO = new UsuarioAutenticado(1L, "admin@nuevo.com");
+
+    @Test
+    void testAciertoYFallo() {
+        CacheTokensVerificados cache = new CacheTokensVerificados(10);
+
+        assertNull(cache.obtener("token-a"));
+        cache.guardar("token-a", USUARIO, System.currentTimeMillis() + 60_000);
+
+        assertEquals(USUARIO, cache.obtener("token-a"));
+        assertNull(cache.obtener("token-b"));
+        assertEquals(1, cache.getAciertos());
+        assertEquals(2, cache.getFallos());
+    }
+
+    @Test
+    void testEntradaExpiradaNoSeEntrega() {
+        CacheTokensVerificados cache = new CacheTokensVerificados(10);
+        cache.guardar("token-a", USUARIO, System.currentTimeMillis() - 1);
+
+        assertNull(cache.obtener("token-a"));
+        assertEquals(0, cache.getTamano());
+    }
+
+    @Test
+    void testCapacidadAcotada() {
+        CacheTokensVerificados cache = new CacheTokensVerificados(3);
+        long expiraEn = System.currentTimeMillis() + 60_000;
+
+        for (int i = 0; i < 10; i++) {
+            cache.guardar("token-" + i, USUARIO, expiraEn);
+        }
+
+        assertTrue(cache.getTamano() <= 3);
+        assertEquals(USUARIO, cache.obtener("token-9"));
+    }
+
+    @Test
+    void testLlenaDescartaPrimeroExpiradosYLuegoLaQueAntesExpira() {
+        CacheTokensVerificados cache = new CacheTokensVerificados(4);
+        long ahora = System.currentTimeMillis();
+        cache.guardar("expirado", USUARIO, ahora - 1);
+        cache.guardar("pronto", USUARIO, ahora + 10_000);
+        cache.guardar("token-a", USUARIO, ahora + 60_000);
+        cache.guardar("token-b", USUARIO, ahora + 60_000);
+
+        cache.guardar("token-c", USUARIO, ahora + 60_000);
+        assertEquals(4, cache.getTamano());
+        assertEquals(USUARIO, cache.obtener("pronto"));
+
+        cache.guardar("token-d", USUARIO, ahora + 60_000);
+        assertEquals(4, cache.getTamano());
+        assertNull(cache.obtener("pronto"));
+        for (String token : new String[] {"token-a", "token-b", "token-c", "token-d"}) {
+            assertEquals(USUARIO, cache.obtener(token));
+        }
+    }
+
+    @Test
+    void testDeshabilitada() {
+        CacheTokensVerificados cache = new CacheTokensVerificados(0);
+        cache.guardar("token-a", USUARIO, System.currentTimeMillis() + 60_000);
+
+        assertNull(cache.obtener("token-a"));
+    }
+}
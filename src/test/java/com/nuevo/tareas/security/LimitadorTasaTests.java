@@ -0,0 +1,134 @@
+package com.nuevo.tareas.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorTasaTests {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void testRafagaYRecarga() {
+        LimitadorTasa limitador = new LimitadorTasa(Duration.ofMinutes(10), 1000);
+        long ahora = System.nanoTime();
+
+        // 1 petición por segundo con ráfaga de 3
+        assertEquals(0, limitador.consumir("a", SEGUNDO, 3, ahora));
+        assertEquals(0, limitador.consumir("a", SEGUNDO, 3, ahora));
+        assertEquals(0, limitador.consumir("a", SEGUNDO, 3, ahora));
+        assertEquals(SEGUNDO, limitador.consumir("a", SEGUNDO, 3, ahora));
+
+        // Otra clave tiene su propia cubeta
+        assertEquals(0, limitador.consumir("b", SEGUNDO, 3, ahora));
+
+        // Pasado un segundo se recupera exactamente una petición
+        assertEquals(0, limitador.consumir("a", SEGUNDO, 3, ahora + SEGUNDO));
+        assertTrue(limitador.consumir("a", SEGUNDO, 3, ahora + SEGUNDO) > 0);
+    }
+
+    @Test
+    void testDescartaCubetasInactivas() {
+        LimitadorTasa limitador = new LimitadorTasa(Duration.ofSeconds(1), 1000);
+        long ahora = System.nanoTime();
+
+        for (int i = 0; i < 100; i++) {
+            limitador.consumir("ip-" + i, SEGUNDO, 5, ahora);
+        }
+        assertEquals(100, limitador.getTamano());
+
+        limitador.consumir("nueva", SEGUNDO, 5, ahora + 10 * SEGUNDO);
+        assertEquals(1, limitador.getTamano());
+    }
+
+    @Test
+    void testNoSuperaElMaximoDeClaves() {
+        LimitadorTasa limitador = new LimitadorTasa(Duration.ofHours(1), 50);
+        long ahora = System.nanoTime();
+
+        for (int i = 0; i < 500; i++) {
+            limitador.consumir("ip-" + i, SEGUNDO, 5, ahora + i);
+        }
+        assertTrue(limitador.getTamano() <= 51);
+    }
+
+    /**
+     * Muchos hilos sobre una misma clave: el compareAndSet no debe admitir ni una petición de más.
+     */
+    @Test
+    void testConcurrenciaSobreLaMismaClave() throws Exception {
+        LimitadorTasa limitador = new LimitadorTasa(Duration.ofMinutes(10), 1000);
+        int hilos = 8;
+        int intentosPorHilo = 20_000;
+        int rafaga = 5_000;
+
+        long admitidas = ejecutarEnParalelo(hilos, h -> {
+            long propias = 0;
+            for (int i = 0; i < intentosPorHilo; i++) {
+                // Intervalo de una hora: durante la prueba no se recupera ninguna petición
+                if (limitador.consumir("compartida", TimeUnit.HOURS.toNanos(1), rafaga, System.nanoTime()) == 0) {
+                    propias++;
+                }
+            }
+            return propias;
+        });
+
+        assertEquals(rafaga, admitidas);
+    }
+
+    @Test
+    void testConcurrenciaConClavesDistintas() throws Exception {
+        LimitadorTasa limitador = new LimitadorTasa(Duration.ofMinutes(10), 1000);
+        int hilos = 8;
+        int intentosPorHilo = 50_000;
+
+        long admitidas = ejecutarEnParalelo(hilos, h -> {
+            String clave = "u:usuario" + h + "@nuevo.com";
+            long propias = 0;
+            for (int i = 0; i < intentosPorHilo; i++) {
+                if (limitador.consumir(clave, 1, Integer.MAX_VALUE, System.nanoTime()) == 0) {
+                    propias++;
+                }
+            }
+            return propias;
+        });
+
+        assertEquals((long) hilos * intentosPorHilo, admitidas);
+    }
+
+    private interface Carga {
+        long ejecutar(int hilo) throws Exception;
+    }
+
+    /**
+     * Ejecuta la carga en paralelo y devuelve las admitidas. El coste por petición se mide en
+     * {@code LimitadorTasaBenchmark} (perfil jmh).
+     */
+    private static long ejecutarEnParalelo(int hilos, Carga carga) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Callable<Long>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                int hilo = h;
+                tareas.add(() -> carga.ejecutar(hilo));
+            }
+
+            long admitidas = 0;
+            for (Future<Long> resultado : executor.invokeAll(tareas)) {
+                admitidas += resultado.get();
+            }
+            return admitidas;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.nuevo.tareas.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerificadorContrasenasTests {
+
+    /**
+     * Encoder que se queda bloqueado hasta que la prueba lo libera, para llenar el pool a voluntad.
+     */
+    private static PasswordEncoder encoderBloqueado(CountDownLatch iniciado, CountDownLatch liberar) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                iniciado.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+    }
+
+    @Test
+    void testRechazaCuandoElPoolEstaSaturado() throws Exception {
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        VerificadorContrasenas verificador =
+                new VerificadorContrasenas(encoderBloqueado(iniciado, liberar), 1, 1, 5_000);
+
+        try {
+            // Uno ocupa el único hilo y otro la única plaza de la cola
+            CompletableFuture<Boolean> enCurso = CompletableFuture.supplyAsync(() -> verificador.coincide("a", "a"));
+            assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Boolean> enCola = CompletableFuture.supplyAsync(() -> verificador.coincide("b", "x"));
+            Thread.sleep(100);
+
+            assertThrows(RejectedExecutionException.class, () -> verificador.coincide("c", "c"));
+
+            liberar.countDown();
+            assertTrue(enCurso.get(5, TimeUnit.SECONDS));
+            assertFalse(enCola.get(5, TimeUnit.SECONDS));
+        } finally {
+            liberar.countDown();
+            verificador.cerrar();
+        }
+    }
+
+    @Test
+    void testRechazaSiLaVerificacionExcedeElPlazo() {
+        CountDownLatch liberar = new CountDownLatch(1);
+        VerificadorContrasenas verificador =
+                new VerificadorContrasenas(encoderBloqueado(new CountDownLatch(1), liberar), 1, 1, 50);
+
+        try {
+            assertThrows(RejectedExecutionException.class, () -> verificador.coincide("a", "a"));
+        } finally {
+            liberar.countDown();
+            verificador.cerrar();
+        }
+    }
+}
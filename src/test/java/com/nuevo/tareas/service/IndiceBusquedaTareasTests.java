@@ -0,0 +1,110 @@
+package com.nuevo.tareas.service;
+
+import com.nuevo.tareas.dto.EstadoDTO;
+import com.nuevo.tareas.dto.EventoTarea;
+import com.nuevo.tareas.dto.ResultadosBusqueda;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.repository.TareaRepository;
+import com.nuevo.tareas.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndiceBusquedaTareasTests {
+
+    private static final Long USUARIO = 1L;
+    private static final LocalDateTime HOY = LocalDateTime.of(2025, 3, 1, 9, 0);
+
+    private final TareaRepository tareaRepository = mock(TareaRepository.class);
+    private final IndiceBusquedaTareas indice = new IndiceBusquedaTareas(tareaRepository, mock(UsuarioRepository.class),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), false, 2);
+
+    @Test
+    void testTerminosSinTildesNiPalabrasVacias() {
+        assertEquals(List.of("reunion", "presupuesto", "ano", "2025"),
+                IndiceBusquedaTareas.terminos("Reunión de PRESUPUESTO, año 2025 (reunión)"));
+    }
+
+    @Test
+    void testBuscaTodasLasPalabrasConPrefijoEnLaUltima() {
+        when(tareaRepository.streamByUsuarioId(USUARIO)).thenAnswer(i -> List.of(
+                tarea(1, "Reunión de presupuesto", "Revisar cifras", 3),
+                tarea(2, "Presupuesto anual", "Preparar la reunion con finanzas", 1),
+                tarea(3, "Comprar café", "Para la oficina", 2)).stream());
+
+        ResultadosBusqueda resultado = indice.buscar(USUARIO, "PRESUPUESTO reun", 10);
+        assertEquals(2, resultado.total());
+        // Orden por fecha de vencimiento
+        assertEquals(List.of(2L, 1L), resultado.tareas().stream().map(TareaDTO::id).toList());
+
+        assertEquals(List.of(3L), ids(indice.buscar(USUARIO, "cafe", 10)));
+        assertEquals(0, indice.buscar(USUARIO, "presupuesto café", 10).total());
+        assertEquals(0, indice.buscar(USUARIO, "de la", 10).total());
+
+        ResultadosBusqueda recortado = indice.buscar(USUARIO, "presupuesto", 1);
+        assertEquals(2, recortado.total());
+        assertEquals(List.of(2L), ids(recortado));
+
+        // La carga desde la base de datos ocurre una sola vez
+        verify(tareaRepository, times(1)).streamByUsuarioId(USUARIO);
+    }
+
+    @Test
+    void testSeActualizaConLosEventos() {
+        when(tareaRepository.streamByUsuarioId(USUARIO)).thenAnswer(i -> List.of(
+                tarea(1, "Llamar al banco", "", 1)).stream());
+        indice.buscar(USUARIO, "banco", 10);
+
+        indice.actualizar(EventoTarea.creada(USUARIO, tarea(2, "Pagar la luz", "Factura de marzo", 2)));
+        assertEquals(List.of(2L), ids(indice.buscar(USUARIO, "factura", 10)));
+
+        TareaDTO editada = new TareaDTO(1L, "Llamar a la aseguradora", "", HOY, HOY.plusDays(1), new EstadoDTO(1L, "Pendiente"), 1L);
+        indice.actualizar(EventoTarea.actualizada(USUARIO, editada));
+        assertEquals(0, indice.buscar(USUARIO, "banco", 10).total());
+        assertEquals(List.of(1L), ids(indice.buscar(USUARIO, "aseguradora", 10)));
+
+        // Un evento atrasado con una versión anterior no deshace la edición
+        indice.actualizar(EventoTarea.actualizada(USUARIO, tarea(1, "Llamar al banco", "", 1)));
+        assertEquals(List.of(1L), ids(indice.buscar(USUARIO, "aseguradora", 10)));
+
+        indice.actualizar(EventoTarea.eliminada(USUARIO, 2L));
+        assertEquals(0, indice.buscar(USUARIO, "factura", 10).total());
+    }
+
+    @Test
+    void testDescartaElIndiceMenosUsadoAlPasarseDelTope() {
+        when(tareaRepository.streamByUsuarioId(anyLong())).thenAnswer(i -> List.of(
+                tarea(i.getArgument(0, Long.class), "Informe mensual", "Enviar", 1)).stream());
+
+        indice.buscar(1L, "informe", 10);
+        indice.buscar(2L, "informe", 10);
+        indice.buscar(1L, "informe", 10);
+        // Tope de 2: el usuario 2 es el que lleva más tiempo sin buscar
+        indice.buscar(3L, "informe", 10);
+        assertEquals(2, indice.getUsuariosEnMemoria());
+
+        indice.buscar(1L, "informe", 10);
+        verify(tareaRepository, times(1)).streamByUsuarioId(1L);
+        assertEquals(List.of(2L), ids(indice.buscar(2L, "informe", 10)));
+        verify(tareaRepository, times(2)).streamByUsuarioId(2L);
+        assertEquals(2, indice.getUsuariosEnMemoria());
+    }
+
+    private static TareaDTO tarea(long id, String titulo, String descripcion, int dias) {
+        return new TareaDTO(id, titulo, descripcion, HOY, HOY.plusDays(dias), new EstadoDTO(1L, "Pendiente"), 0L);
+    }
+
+    private static List<Long> ids(ResultadosBusqueda resultado) {
+        return resultado.tareas().stream().map(TareaDTO::id).toList();
+    }
+}
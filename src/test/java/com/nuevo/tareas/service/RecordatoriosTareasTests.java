@@ -0,0 +1,109 @@
+package com.nuevo.tareas.service;
+
+import com.nuevo.tareas.dto.EstadoDTO;
+import com.nuevo.tareas.dto.EventoTarea;
+import com.nuevo.tareas.dto.TareaDTO;
+import com.nuevo.tareas.dto.VencimientoTarea;
+import com.nuevo.tareas.model.EstadoTarea;
+import com.nuevo.tareas.repository.TareaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecordatoriosTareasTests {
+
+    private static final Long USUARIO = 1L;
+
+    private final TareaRepository tareaRepository = mock(TareaRepository.class);
+    private final CatalogoEstados catalogoEstados = mock(CatalogoEstados.class);
+    private final RecordatoriosTareas recordatorios = new RecordatoriosTareas(tareaRepository, mock(TareaService.class),
+            catalogoEstados, mock(ApplicationEventPublisher.class), true, 1000, 3_600_000, 86_400_000, false, 0);
+
+    @AfterEach
+    void tearDown() {
+        recordatorios.cerrar();
+    }
+
+    @Test
+    void testLosEventosNoEsperanALaConsultaDeLaVentana() throws Exception {
+        when(catalogoEstados.porNombre(any())).thenReturn(Optional.of(new EstadoTarea(1L, EstadoTarea.PENDIENTE)));
+        LocalDateTime manana = LocalDateTime.now().plusHours(20);
+        CountDownLatch consultando = new CountDownLatch(1);
+        CountDownLatch responder = new CountDownLatch(1);
+        when(tareaRepository.buscarVencimientos(any(), any(), any())).thenAnswer(i -> {
+            consultando.countDown();
+            responder.await();
+            // La consulta leyó la tarea 1 antes de la edición que llega mientras tanto
+            return List.of(new VencimientoTarea(1L, USUARIO, manana, 0L),
+                    new VencimientoTarea(2L, USUARIO, manana, 0L));
+        });
+
+        CompletableFuture<Void> inicio = CompletableFuture.runAsync(recordatorios::iniciar);
+        assertTrue(consultando.await(5, TimeUnit.SECONDS));
+
+        // 🔹 Con la consulta en curso, el evento tras el commit se programa sin esperarla
+        CompletableFuture<Void> evento = CompletableFuture.runAsync(() -> recordatorios.actualizar(EventoTarea.actualizada(
+                USUARIO, new TareaDTO(1L, "Editada", "", manana, manana.plusHours(1),
+                        new EstadoDTO(1L, EstadoTarea.PENDIENTE), 1L))));
+        evento.get(1, TimeUnit.SECONDS);
+        assertEquals(1, recordatorios.getProgramadas());
+
+        responder.countDown();
+        inicio.get(5, TimeUnit.SECONDS);
+        // Al terminar la consulta se incorpora la tarea 2; la 1 ya estaba programada
+        assertEquals(2, recordatorios.getProgramadas());
+    }
+
+    // 🔹 PRUEBA: Con carga diferida el arranque no consulta, y la ventana empieza en la hora del arranque
+    @Test
+    void testCargaDiferidaFueraDelArranque() throws Exception {
+        RecordatoriosTareas diferidos = new RecordatoriosTareas(tareaRepository, mock(TareaService.class),
+                catalogoEstados, mock(ApplicationEventPublisher.class), true, 1000, 3_600_000, 86_400_000, false, 300);
+        try {
+            when(catalogoEstados.porNombre(any())).thenReturn(Optional.of(new EstadoTarea(1L, EstadoTarea.PENDIENTE)));
+            LocalDateTime manana = LocalDateTime.now().plusHours(20);
+            AtomicReference<LocalDateTime> desde = new AtomicReference<>();
+            CountDownLatch consultada = new CountDownLatch(1);
+            when(tareaRepository.buscarVencimientos(any(), any(), any())).thenAnswer(i -> {
+                desde.set(i.getArgument(0));
+                consultada.countDown();
+                return List.of(new VencimientoTarea(1L, USUARIO, manana, 0L));
+            });
+
+            LocalDateTime arranque = LocalDateTime.now();
+            diferidos.iniciar();
+            verify(tareaRepository, never()).buscarVencimientos(any(), any(), any());
+            // Antes de la carga el evento se ignora: la consulta ya leerá ese cambio confirmado
+            diferidos.actualizar(EventoTarea.actualizada(USUARIO, new TareaDTO(1L, "Editada", "", manana,
+                    manana.plusHours(1), new EstadoDTO(1L, EstadoTarea.PENDIENTE), 1L)));
+            assertEquals(0, diferidos.getProgramadas());
+
+            assertTrue(consultada.await(5, TimeUnit.SECONDS));
+            // Lo que venza durante el retraso también entra en la ventana
+            assertTrue(Duration.between(arranque, desde.get()).toMillis() < 200, "Ventana desde " + desde.get());
+            for (int intento = 0; intento < 50 && diferidos.getProgramadas() == 0; intento++) {
+                Thread.sleep(20);
+            }
+            assertEquals(1, diferidos.getProgramadas());
+        } finally {
+            diferidos.cerrar();
+        }
+    }
+}
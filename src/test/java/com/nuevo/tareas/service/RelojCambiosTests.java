@@ -0,0 +1,66 @@
+package com.nuevo.tareas.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RelojCambiosTests {
+
+    @AfterEach
+    void limpiar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testContinuaDesdeElMaximoGuardado() {
+        RelojCambios reloj = new RelojCambios(jdbcConMaximo(41));
+
+        assertEquals(41, reloj.limiteSeguro());
+        assertEquals(42, reloj.siguiente());
+        assertEquals(42, reloj.limiteSeguro());
+    }
+
+    @Test
+    void testNoAvanzaMasAllaDeUnCambioSinConfirmar() {
+        RelojCambios reloj = new RelojCambios(jdbcConMaximo(0));
+
+        // Transacción lenta: toma el 1 y todavía no termina
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(1, reloj.siguiente());
+        List<TransactionSynchronization> lenta = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Otra transacción toma el 2 y confirma
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(2, reloj.siguiente());
+        terminar(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(0, reloj.limiteSeguro());
+
+        terminar(lenta);
+        assertEquals(2, reloj.limiteSeguro());
+    }
+
+    private static void terminar(List<TransactionSynchronization> sincronizaciones) {
+        sincronizaciones.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static JdbcTemplate jdbcConMaximo(long maximo) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(maximo);
+        return jdbcTemplate;
+    }
+}
@@ -0,0 +1,74 @@
+package com.nuevo.tareas.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RuedaTemporizadoresTests {
+
+    @Test
+    void testEntregaEnOrdenSinAdelantarse() {
+        RuedaTemporizadores<String> rueda = new RuedaTemporizadores<>(10, 4, 1_000);
+        rueda.programar(1_005, "a");
+        rueda.programar(1_035, "b");
+        // Más allá de una vuelta del primer nivel (40 ms): pasa por los niveles superiores
+        rueda.programar(1_170, "c");
+        rueda.programar(2_600, "d");
+
+        List<String> entregados = new ArrayList<>();
+        rueda.avanzar(1_009, entregados::add);
+        assertEquals(List.of(), entregados);
+        rueda.avanzar(1_010, entregados::add);
+        assertEquals(List.of("a"), entregados);
+        rueda.avanzar(1_169, entregados::add);
+        assertEquals(List.of("a", "b"), entregados);
+        rueda.avanzar(1_180, entregados::add);
+        assertEquals(List.of("a", "b", "c"), entregados);
+        rueda.avanzar(5_000, entregados::add);
+        assertEquals(List.of("a", "b", "c", "d"), entregados);
+    }
+
+    @Test
+    void testLoVencidoSeEntregaEnElSiguienteAvance() {
+        RuedaTemporizadores<String> rueda = new RuedaTemporizadores<>(10, 4, 1_000);
+        rueda.avanzar(1_100, elemento -> { });
+        rueda.programar(900, "atrasado");
+
+        List<String> entregados = new ArrayList<>();
+        rueda.avanzar(1_110, entregados::add);
+        assertEquals(List.of("atrasado"), entregados);
+    }
+
+    @Test
+    void testMuchosVencimientosAleatorios() {
+        long inicio = 50_000;
+        RuedaTemporizadores<Long> rueda = new RuedaTemporizadores<>(1_000, 60, inicio);
+        Random random = new Random(3);
+        List<Long> vencimientos = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long vence = inicio + random.nextLong(86_400_000L * 3);
+            vencimientos.add(vence);
+            rueda.programar(vence, vence);
+        }
+
+        List<Long> entregados = new ArrayList<>();
+        // Avances irregulares, como los de un hilo programado que a veces se retrasa
+        for (long ahora = inicio; ahora <= inicio + 86_400_000L * 3 + 1_000; ahora += random.nextInt(1, 90_000)) {
+            long limite = ahora;
+            rueda.avanzar(ahora, vence -> {
+                assertTrue(vence < limite, "entregado antes de vencer");
+                assertTrue(limite - vence <= 90_000 + 1_000, "entregado demasiado tarde");
+                entregados.add(vence);
+            });
+        }
+        rueda.avanzar(inicio + 86_400_000L * 4, entregados::add);
+
+        assertEquals(vencimientos.size(), entregados.size());
+        assertEquals(vencimientos.stream().sorted().toList(), entregados.stream().sorted().toList());
+    }
+}